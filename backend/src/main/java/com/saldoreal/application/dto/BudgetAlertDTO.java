@@ -0,0 +1,19 @@
+package com.saldoreal.application.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+// Devolvido na criação de uma despesa quando ela faz a categoria cruzar um dos limiares
+// de orçamento (em % do limite mensal); threshold é o maior limiar cruzado.
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BudgetAlertDTO {
+    private Long categoryId;
+    private int threshold;
+    private BigDecimal limit;
+    private BigDecimal consumed;
+}
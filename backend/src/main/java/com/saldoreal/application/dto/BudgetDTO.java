@@ -0,0 +1,22 @@
+package com.saldoreal.application.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+// Orçamento de uma categoria no mês corrente. Sem limite mensal, limit, remaining e percentUsed ficam nulos.
+// projected estende o ritmo de gasto até agora para o mês inteiro.
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BudgetDTO {
+    private Long categoryId;
+    private String categoryName;
+    private BigDecimal limit;
+    private BigDecimal consumed;
+    private BigDecimal remaining;
+    private BigDecimal projected;
+    private Double percentUsed;
+}
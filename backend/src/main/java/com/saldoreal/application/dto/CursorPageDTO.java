@@ -0,0 +1,18 @@
+package com.saldoreal.application.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CursorPageDTO<T> {
+    private List<T> content;
+    private int size;
+    private String nextCursor;
+    private String prevCursor;
+    private Long totalElements;
+}
@@ -5,17 +5,34 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.util.List;
-import java.util.Map;
 
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class DashboardDTO {
+    private LocalDate periodoInicio;
+    private LocalDate periodoFim;
     private BigDecimal totalMesAtual;
     private BigDecimal totalMesAnterior;
-    private BigDecimal percentualVariacao;
-    private List<Map<String, Object>> gastosPorCategoria;
-    private List<Map<String, Object>> gastosPorPeriodo;
+    private double percentualVariacao;
+    private List<CategoryTotal> gastosPorCategoria;
+    private List<DailyTotal> gastosPorPeriodo;
+    
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class CategoryTotal {
+        private String categoria;
+        private BigDecimal total;
+    }
+    
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class DailyTotal {
+        private LocalDate data;
+        private BigDecimal total;
+    }
 }
-
@@ -0,0 +1,11 @@
+package com.saldoreal.application.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class EventsTokenDTO {
+    private String token;
+    private long expiresIn;
+}
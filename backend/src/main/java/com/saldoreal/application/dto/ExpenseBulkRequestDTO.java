@@ -0,0 +1,21 @@
+package com.saldoreal.application.dto;
+
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.util.List;
+
+// Seleção das despesas por ids, por filtro ou pelos dois (ids dentro do filtro).
+// Na alteração, categoryId, paymentMethod e recurring informados são gravados em todas.
+@Data
+public class ExpenseBulkRequestDTO {
+    
+    @Size(max = 10000, message = "Informe no máximo 10000 ids por vez")
+    private List<Long> ids;
+    
+    private ExpenseFilterDTO filter;
+    
+    private Long categoryId;
+    private String paymentMethod;
+    private Boolean recurring;
+}
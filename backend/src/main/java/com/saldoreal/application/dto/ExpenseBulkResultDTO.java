@@ -0,0 +1,12 @@
+package com.saldoreal.application.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ExpenseBulkResultDTO {
+    private long affected;
+}
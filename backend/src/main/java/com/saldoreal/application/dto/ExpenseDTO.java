@@ -1,5 +1,7 @@
 package com.saldoreal.application.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.validation.constraints.DecimalMin;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
@@ -29,5 +31,9 @@ public class ExpenseDTO {
     private String barcode;
     private Boolean recurring = false;
     private String observations;
+    
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private BudgetAlertDTO budgetAlert;
 }
 
@@ -0,0 +1,14 @@
+package com.saldoreal.application.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Evento "expense" do stream /events: a despesa como ficou após a ação (numa exclusão, como estava).
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ExpenseEventDTO {
+    private String action;
+    private ExpenseDTO expense;
+}
@@ -13,9 +13,12 @@ public class ExpenseFilterDTO {
     private BigDecimal minAmount;
     private BigDecimal maxAmount;
     private String paymentMethod;
+    private String q;
     private int page = 0;
     private int size = 20;
     private String sortBy = "date";
     private String sortDir = "desc";
+    private String cursor;
+    private boolean withCount = false;
 }
 
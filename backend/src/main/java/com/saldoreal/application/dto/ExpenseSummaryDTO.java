@@ -0,0 +1,34 @@
+package com.saldoreal.application.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ExpenseSummaryDTO {
+    private long count;
+    private BigDecimal total;
+    private BigDecimal average;
+    private BigDecimal min;
+    private BigDecimal max;
+    private String groupBy;
+    private List<Group> groups;
+    
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Group {
+        private String key;
+        private String label;
+        private long count;
+        private BigDecimal total;
+        private BigDecimal average;
+        private BigDecimal min;
+        private BigDecimal max;
+    }
+}
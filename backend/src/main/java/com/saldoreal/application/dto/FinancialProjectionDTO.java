@@ -1,6 +1,9 @@
 package com.saldoreal.application.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+import jakarta.validation.constraints.DecimalMax;
 import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotNull;
 import lombok.Data;
@@ -21,12 +24,17 @@ public class FinancialProjectionDTO {
     
     @NotNull(message = "Taxa de juros é obrigatória")
     @DecimalMin(value = "0.0", message = "Taxa de juros deve ser maior ou igual a zero")
+    @DecimalMax(value = "1000.0", message = "Taxa de juros deve ser no máximo 1000% ao ano")
     private BigDecimal interestRate;
     
     @NotNull(message = "Período é obrigatório")
     @Min(value = 1, message = "Período deve ser maior que zero")
+    @Max(value = 1200, message = "Período deve ser de no máximo 1200 meses")
     private Integer period;
     
     private BigDecimal futureValue;
+    
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private ProjectionScheduleDTO schedule;
 }
 
@@ -0,0 +1,18 @@
+package com.saldoreal.application.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+// Evento "totals" do stream /events: total do mês corrente e consumo por categoria.
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MonthTotalsDTO {
+    private String month;
+    private BigDecimal total;
+    private List<BudgetDTO> categories;
+}
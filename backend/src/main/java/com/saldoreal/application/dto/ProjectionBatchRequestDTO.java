@@ -0,0 +1,16 @@
+package com.saldoreal.application.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class ProjectionBatchRequestDTO {
+    
+    @NotEmpty(message = "Informe ao menos um cenário")
+    @Size(max = 1000, message = "Calcule no máximo 1000 cenários por vez")
+    private List<@Valid FinancialProjectionDTO> scenarios;
+}
@@ -0,0 +1,16 @@
+package com.saldoreal.application.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+// Valores futuros na mesma ordem dos cenários enviados.
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProjectionBatchResultDTO {
+    private List<BigDecimal> futureValues;
+}
@@ -0,0 +1,18 @@
+package com.saldoreal.application.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+// futureValues[i][j][k] é o valor futuro com interestRates[i], periods[j] e monthlyContributions[k].
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProjectionGridDTO {
+    private BigDecimal[] interestRates;
+    private int[] periods;
+    private BigDecimal[] monthlyContributions;
+    private double[][][] futureValues;
+}
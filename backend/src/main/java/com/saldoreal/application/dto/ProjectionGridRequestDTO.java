@@ -0,0 +1,86 @@
+package com.saldoreal.application.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+// Grade de sensibilidade: todas as combinações de taxa, prazo e aporte.
+// Sem to (ou com to igual a from), o eixo tem um único valor; com to maior que from, step é obrigatório.
+@Data
+public class ProjectionGridRequestDTO {
+    
+    @NotNull(message = "Valor inicial é obrigatório")
+    @DecimalMin(value = "0.0", message = "Valor inicial deve ser maior ou igual a zero")
+    private BigDecimal initialValue;
+    
+    @NotNull(message = "Faixa de taxas é obrigatória")
+    @Valid
+    private RateRange interestRate;
+    
+    @NotNull(message = "Faixa de prazos é obrigatória")
+    @Valid
+    private PeriodRange period;
+    
+    @NotNull(message = "Faixa de aportes é obrigatória")
+    @Valid
+    private DecimalRange monthlyContribution;
+    
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class DecimalRange {
+        @NotNull(message = "Início da faixa é obrigatório")
+        @DecimalMin(value = "0.0", message = "Início da faixa deve ser maior ou igual a zero")
+        private BigDecimal from;
+        
+        private BigDecimal to;
+        
+        @DecimalMin(value = "0.0", inclusive = false, message = "Passo da faixa deve ser maior que zero")
+        private BigDecimal step;
+    }
+    
+    // Faixa de taxas: os mesmos limites de uma projeção avulsa, nas duas pontas.
+    @NoArgsConstructor
+    public static class RateRange extends DecimalRange {
+        
+        public RateRange(BigDecimal from, BigDecimal to, BigDecimal step) {
+            super(from, to, step);
+        }
+        
+        @Override
+        @DecimalMax(value = "1000.0", message = "Taxa de juros deve ser no máximo 1000% ao ano")
+        public BigDecimal getFrom() {
+            return super.getFrom();
+        }
+        
+        @Override
+        @DecimalMax(value = "1000.0", message = "Taxa de juros deve ser no máximo 1000% ao ano")
+        public BigDecimal getTo() {
+            return super.getTo();
+        }
+    }
+    
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class PeriodRange {
+        @NotNull(message = "Início da faixa é obrigatório")
+        @Min(value = 1, message = "Período deve ser maior que zero")
+        @Max(value = 1200, message = "Período deve ser de no máximo 1200 meses")
+        private Integer from;
+        
+        @Max(value = 1200, message = "Período deve ser de no máximo 1200 meses")
+        private Integer to;
+        
+        @Min(value = 1, message = "Passo da faixa deve ser maior que zero")
+        private Integer step;
+    }
+}
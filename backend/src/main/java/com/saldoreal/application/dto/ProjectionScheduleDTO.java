@@ -0,0 +1,16 @@
+package com.saldoreal.application.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Evolução mês a mês em colunas: o índice i corresponde ao fim do mês i + 1.
+// contributions é o total aplicado (valor inicial mais aportes) e interest, os juros acumulados.
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProjectionScheduleDTO {
+    private double[] balance;
+    private double[] contributions;
+    private double[] interest;
+}
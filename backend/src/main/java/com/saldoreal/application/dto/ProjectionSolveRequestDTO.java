@@ -0,0 +1,43 @@
+package com.saldoreal.application.dto;
+
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+import java.math.BigDecimal;
+
+// Busca de meta: informa o valor futuro desejado e todos os parâmetros menos o que será calculado.
+@Data
+public class ProjectionSolveRequestDTO {
+    
+    @NotNull(message = "Informe o que deve ser calculado")
+    private Unknown solveFor;
+    
+    @NotNull(message = "Valor desejado é obrigatório")
+    @DecimalMin(value = "0.0", inclusive = false, message = "Valor desejado deve ser maior que zero")
+    private BigDecimal targetValue;
+    
+    @NotNull(message = "Valor inicial é obrigatório")
+    @DecimalMin(value = "0.0", message = "Valor inicial deve ser maior ou igual a zero")
+    private BigDecimal initialValue;
+    
+    @DecimalMin(value = "0.0", message = "Aporte mensal deve ser maior ou igual a zero")
+    private BigDecimal monthlyContribution;
+    
+    @DecimalMin(value = "0.0", message = "Taxa de juros deve ser maior ou igual a zero")
+    @DecimalMax(value = "1000.0", message = "Taxa de juros deve ser no máximo 1000% ao ano")
+    private BigDecimal interestRate;
+    
+    @Min(value = 1, message = "Período deve ser maior que zero")
+    @Max(value = 1200, message = "Período deve ser de no máximo 1200 meses")
+    private Integer period;
+    
+    public enum Unknown {
+        MONTHLY_CONTRIBUTION,
+        PERIOD,
+        INTEREST_RATE
+    }
+}
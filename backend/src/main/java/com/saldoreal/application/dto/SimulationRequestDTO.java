@@ -0,0 +1,50 @@
+package com.saldoreal.application.dto;
+
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+import java.math.BigDecimal;
+
+@Data
+public class SimulationRequestDTO {
+    
+    @NotNull(message = "Valor inicial é obrigatório")
+    @DecimalMin(value = "0.0", message = "Valor inicial deve ser maior ou igual a zero")
+    private BigDecimal initialValue;
+    
+    @NotNull(message = "Aporte mensal é obrigatório")
+    @DecimalMin(value = "0.0", message = "Aporte mensal deve ser maior ou igual a zero")
+    private BigDecimal monthlyContribution;
+    
+    // Retorno anual esperado e volatilidade anual, em %.
+    @NotNull(message = "Retorno esperado é obrigatório")
+    @DecimalMin(value = "-99.0", message = "Retorno esperado deve ser maior que -99%")
+    private BigDecimal expectedReturn;
+    
+    @NotNull(message = "Volatilidade é obrigatória")
+    @DecimalMin(value = "0.0", message = "Volatilidade deve ser maior ou igual a zero")
+    @DecimalMax(value = "200.0", message = "Volatilidade deve ser no máximo 200%")
+    private BigDecimal volatility;
+    
+    // Desvio padrão do aporte em relação ao valor informado, em %.
+    @DecimalMin(value = "0.0", message = "Variação do aporte deve ser maior ou igual a zero")
+    private BigDecimal contributionVolatility = BigDecimal.ZERO;
+    
+    @NotNull(message = "Período é obrigatório")
+    @Min(value = 1, message = "Período deve ser maior que zero")
+    @Max(value = 1200, message = "Período deve ser de no máximo 1200 meses")
+    private Integer period;
+    
+    @Min(value = 100, message = "Simule pelo menos 100 trajetórias")
+    @Max(value = 200000, message = "Simule no máximo 200000 trajetórias")
+    private Integer paths = 10000;
+    
+    private BigDecimal target;
+    
+    // Semente opcional, para repetir a mesma simulação.
+    private Long seed;
+}
@@ -0,0 +1,19 @@
+package com.saldoreal.application.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Faixas de percentil do saldo por mês (índice i = fim do mês i + 1).
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SimulationResultDTO {
+    private int paths;
+    private int period;
+    private long seed;
+    private double[] p5;
+    private double[] p50;
+    private double[] p95;
+    private Double targetProbability;
+}
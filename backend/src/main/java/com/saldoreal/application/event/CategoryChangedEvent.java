@@ -0,0 +1,5 @@
+package com.saldoreal.application.event;
+
+// Publicado quando uma categoria é criada, alterada ou excluída.
+public record CategoryChangedEvent(Long userId, Long categoryId) {
+}
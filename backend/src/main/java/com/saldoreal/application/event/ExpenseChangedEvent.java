@@ -0,0 +1,33 @@
+package com.saldoreal.application.event;
+
+import com.saldoreal.application.dto.ExpenseDTO;
+
+import java.time.LocalDate;
+import java.util.Set;
+
+// Publicado quando despesas de um usuário são incluídas, alteradas ou excluídas,
+// com as datas afetadas (numa alteração, a data antiga e a nova) e, entre elas, as datas
+// cujos totais diários mudaram; só uma alteração em massa sem efeito nos totais as separa.
+// Quando a mudança é numa única despesa, action e expense a descrevem; em lote (importação,
+// operações em massa, recorrentes) vêm nulos.
+public record ExpenseChangedEvent(Long userId, Set<LocalDate> dates, Set<LocalDate> totalDates,
+                                  Action action, ExpenseDTO expense) {
+    
+    public enum Action {
+        CREATED,
+        UPDATED,
+        DELETED
+    }
+    
+    public ExpenseChangedEvent(Long userId, Set<LocalDate> dates, Action action, ExpenseDTO expense) {
+        this(userId, dates, dates, action, expense);
+    }
+    
+    public ExpenseChangedEvent(Long userId, Set<LocalDate> dates, Set<LocalDate> totalDates) {
+        this(userId, dates, totalDates, null, null);
+    }
+    
+    public ExpenseChangedEvent(Long userId, Set<LocalDate> dates) {
+        this(userId, dates, dates, null, null);
+    }
+}
@@ -0,0 +1,7 @@
+package com.saldoreal.application.event;
+
+// Publicado sempre que a linha de um usuário é gravada (hoje, no cadastro) e deve ser publicado
+// por quem vier a trocar email ou senha ou excluir usuários. Em uma troca de email, previousEmail
+// traz o endereço antigo; nos demais casos é igual a email.
+public record UserChangedEvent(Long userId, String previousEmail, String email) {
+}
@@ -0,0 +1,60 @@
+package com.saldoreal.application.exporter;
+
+import com.saldoreal.domain.repository.ExpenseExportRow;
+
+import java.io.IOException;
+import java.io.Writer;
+
+// Mesmo layout aceito por POST /expenses/import, para que o arquivo possa ser reimportado.
+class CsvExpenseFileWriter implements ExpenseFileWriter {
+    
+    private static final String HEADER =
+            "id;data;descricao;categoria;valor;forma_pagamento;codigo_barras;recorrente;observacoes\n";
+    
+    private final Writer writer;
+    
+    CsvExpenseFileWriter(Writer writer) throws IOException {
+        this.writer = writer;
+        writer.write(HEADER);
+    }
+    
+    @Override
+    public void write(ExpenseExportRow row) throws IOException {
+        writer.write(String.valueOf(row.id()));
+        writer.write(';');
+        writer.write(row.date().toString());
+        writer.write(';');
+        writeText(row.description());
+        writer.write(';');
+        writeText(row.categoryName());
+        writer.write(';');
+        writer.write(row.amount().toPlainString());
+        writer.write(';');
+        writeText(row.paymentMethod());
+        writer.write(';');
+        writeText(row.barcode());
+        writer.write(';');
+        writer.write(row.recurring() ? "true" : "false");
+        writer.write(';');
+        writeText(row.observations());
+        writer.write('\n');
+    }
+    
+    @Override
+    public void finish() throws IOException {
+        writer.flush();
+    }
+    
+    private void writeText(String value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        if (value.indexOf(';') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+}
@@ -0,0 +1,14 @@
+package com.saldoreal.application.exporter;
+
+import com.saldoreal.domain.repository.ExpenseExportRow;
+
+import java.io.IOException;
+
+// Escreve a exportação linha a linha direto na resposta, sem acumular o resultado.
+public interface ExpenseFileWriter {
+    
+    void write(ExpenseExportRow row) throws IOException;
+    
+    // Descarrega o que ficou no buffer; não fecha a resposta.
+    void finish() throws IOException;
+}
@@ -0,0 +1,47 @@
+package com.saldoreal.application.exporter;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.util.MinimalPrettyPrinter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.saldoreal.domain.repository.ExpenseExportRow;
+
+import java.io.IOException;
+import java.io.Writer;
+
+// Um objeto JSON por linha, com os campos do ExpenseDTO mais o nome da categoria.
+class NdjsonExpenseFileWriter implements ExpenseFileWriter {
+    
+    private final JsonGenerator generator;
+    private boolean written;
+    
+    NdjsonExpenseFileWriter(Writer writer, ObjectMapper objectMapper) throws IOException {
+        this.generator = objectMapper.getFactory().createGenerator(writer);
+        this.generator.setPrettyPrinter(new MinimalPrettyPrinter("\n"));
+    }
+    
+    @Override
+    public void write(ExpenseExportRow row) throws IOException {
+        generator.writeStartObject();
+        generator.writeNumberField("id", row.id());
+        generator.writeStringField("date", row.date().toString());
+        generator.writeStringField("description", row.description());
+        generator.writeNumberField("categoryId", row.categoryId());
+        generator.writeStringField("categoryName", row.categoryName());
+        generator.writeNumberField("amount", row.amount());
+        generator.writeStringField("paymentMethod", row.paymentMethod());
+        generator.writeStringField("barcode", row.barcode());
+        generator.writeBooleanField("recurring", row.recurring());
+        generator.writeStringField("observations", row.observations());
+        generator.writeEndObject();
+        written = true;
+    }
+    
+    @Override
+    public void finish() throws IOException {
+        // Termina a última linha com quebra, como as demais.
+        if (written) {
+            generator.writeRaw('\n');
+        }
+        generator.flush();
+    }
+}
@@ -0,0 +1,144 @@
+package com.saldoreal.application.importer;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// CSV com cabeçalho. O separador (";", "," ou tab) é detectado no cabeçalho e as colunas
+// são reconhecidas pelo nome, em português ou inglês, em qualquer ordem.
+class CsvExpenseFileReader implements ExpenseFileReader {
+    
+    private static final Map<String, String> COLUMN_ALIASES = Map.ofEntries(
+        Map.entry("data", "date"),
+        Map.entry("date", "date"),
+        Map.entry("descricao", "description"),
+        Map.entry("description", "description"),
+        Map.entry("historico", "description"),
+        Map.entry("categoria", "category"),
+        Map.entry("category", "category"),
+        Map.entry("valor", "amount"),
+        Map.entry("amount", "amount"),
+        Map.entry("forma_pagamento", "paymentMethod"),
+        Map.entry("formapagamento", "paymentMethod"),
+        Map.entry("paymentmethod", "paymentMethod"),
+        Map.entry("codigo_barras", "barcode"),
+        Map.entry("codigobarras", "barcode"),
+        Map.entry("barcode", "barcode"),
+        Map.entry("observacoes", "observations"),
+        Map.entry("observations", "observations")
+    );
+    
+    private final BufferedReader reader;
+    private final char delimiter;
+    private final Map<String, Integer> columns = new HashMap<>();
+    private long line = 1;
+    
+    CsvExpenseFileReader(BufferedReader reader) throws IOException {
+        this.reader = reader;
+        
+        String header = reader.readLine();
+        if (header == null) {
+            throw new IllegalArgumentException("Arquivo CSV vazio");
+        }
+        if (!header.isEmpty() && header.charAt(0) == '\uFEFF') {
+            header = header.substring(1);
+        }
+        this.delimiter = detectDelimiter(header);
+        
+        List<String> names = split(header);
+        for (int i = 0; i < names.size(); i++) {
+            String column = COLUMN_ALIASES.get(normalize(names.get(i)));
+            if (column != null) {
+                columns.putIfAbsent(column, i);
+            }
+        }
+        if (!columns.containsKey("date") || !columns.containsKey("description") || !columns.containsKey("amount")) {
+            throw new IllegalArgumentException("O cabeçalho do CSV deve ter as colunas data, descricao e valor");
+        }
+    }
+    
+    @Override
+    public ImportedExpense next() throws IOException {
+        String text;
+        do {
+            text = reader.readLine();
+            line++;
+            if (text == null) {
+                return null;
+            }
+        } while (text.isBlank());
+        
+        List<String> fields = split(text);
+        try {
+            return new ImportedExpense(
+                line,
+                ImportValues.parseDate(field(fields, "date")),
+                ImportValues.emptyToNull(field(fields, "description")),
+                ImportValues.emptyToNull(field(fields, "category")),
+                ImportValues.parseAmount(field(fields, "amount")),
+                ImportValues.emptyToNull(field(fields, "paymentMethod")),
+                ImportValues.emptyToNull(field(fields, "barcode")),
+                ImportValues.emptyToNull(field(fields, "observations")),
+                null
+            );
+        } catch (RuntimeException e) {
+            return ImportedExpense.invalid(line, "Data ou valor inválido");
+        }
+    }
+    
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+    
+    private String field(List<String> fields, String column) {
+        Integer index = columns.get(column);
+        return index != null && index < fields.size() ? fields.get(index) : "";
+    }
+    
+    // Campos entre aspas podem conter o separador; aspas duplicadas representam uma aspa.
+    private List<String> split(String text) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < text.length() && text.charAt(i + 1) == '"') {
+                    current.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == delimiter) {
+                fields.add(current.toString());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        fields.add(current.toString());
+        return fields;
+    }
+    
+    private static char detectDelimiter(String header) {
+        if (header.indexOf(';') >= 0) {
+            return ';';
+        }
+        return header.indexOf('\t') >= 0 ? '\t' : ',';
+    }
+    
+    private static String normalize(String name) {
+        return Normalizer.normalize(name.trim().toLowerCase(), Normalizer.Form.NFD)
+                .replaceAll("\\p{M}", "")
+                .replace(' ', '_');
+    }
+}
@@ -0,0 +1,11 @@
+package com.saldoreal.application.importer;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+// Lê o arquivo de importação sob demanda, uma despesa por chamada, sem carregá-lo inteiro.
+public interface ExpenseFileReader extends Closeable {
+    
+    // Retorna null no fim do arquivo.
+    ImportedExpense next() throws IOException;
+}
@@ -0,0 +1,24 @@
+package com.saldoreal.application.importer;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+
+public enum ImportFormat {
+    CSV,
+    OFX;
+    
+    public ExpenseFileReader open(InputStream in, Charset charset) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, charset), 64 * 1024);
+        return this == CSV ? new CsvExpenseFileReader(reader) : new OfxExpenseFileReader(reader);
+    }
+    
+    public static ImportFormat fromFileName(String fileName) {
+        if (fileName != null && fileName.toLowerCase().endsWith(".ofx")) {
+            return OFX;
+        }
+        return CSV;
+    }
+}
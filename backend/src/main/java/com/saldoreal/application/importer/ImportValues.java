@@ -0,0 +1,48 @@
+package com.saldoreal.application.importer;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+
+// Conversões comuns aos formatos: datas em ISO, dd/MM/yyyy ou yyyyMMdd e valores
+// com vírgula ou ponto decimal. Débitos negativos viram o valor absoluto da despesa.
+final class ImportValues {
+    
+    private static final DateTimeFormatter BRAZILIAN_DATE = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+    private static final DateTimeFormatter COMPACT_DATE = DateTimeFormatter.BASIC_ISO_DATE;
+    
+    private ImportValues() {
+    }
+    
+    static LocalDate parseDate(String value) {
+        String text = value.trim();
+        if (text.indexOf('/') > 0) {
+            return LocalDate.parse(text, BRAZILIAN_DATE);
+        }
+        // OFX: yyyyMMdd seguido opcionalmente de hora e fuso, como 20250105120000[-3:BRT].
+        if (text.length() >= 8 && text.substring(0, 8).chars().allMatch(Character::isDigit)) {
+            return LocalDate.parse(text.substring(0, 8), COMPACT_DATE);
+        }
+        return LocalDate.parse(text);
+    }
+    
+    static BigDecimal parseAmount(String value) {
+        String text = value.trim().replace("R$", "").replace(" ", "");
+        int comma = text.lastIndexOf(',');
+        int dot = text.lastIndexOf('.');
+        if (comma > dot) {
+            text = text.replace(".", "").replace(',', '.');
+        } else if (dot > comma && comma >= 0) {
+            text = text.replace(",", "");
+        }
+        return new BigDecimal(text).abs();
+    }
+    
+    static String emptyToNull(String value) {
+        if (value == null) {
+            return null;
+        }
+        String text = value.trim();
+        return text.isEmpty() ? null : text;
+    }
+}
@@ -0,0 +1,24 @@
+package com.saldoreal.application.importer;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+// Uma linha lida do arquivo. Quando a linha não pôde ser interpretada, só line e error vêm preenchidos.
+public record ImportedExpense(long line,
+                              LocalDate date,
+                              String description,
+                              String category,
+                              BigDecimal amount,
+                              String paymentMethod,
+                              String barcode,
+                              String observations,
+                              String error) {
+    
+    static ImportedExpense invalid(long line, String error) {
+        return new ImportedExpense(line, null, null, null, null, null, null, null, error);
+    }
+    
+    public boolean isValid() {
+        return error == null;
+    }
+}
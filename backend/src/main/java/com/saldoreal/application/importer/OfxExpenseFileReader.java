@@ -0,0 +1,112 @@
+package com.saldoreal.application.importer;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+// Extrato OFX (SGML 1.x ou XML 2.x). Percorre as tags uma a uma e emite cada STMTTRN
+// de débito como despesa; créditos são reportados como linhas ignoradas.
+class OfxExpenseFileReader implements ExpenseFileReader {
+    
+    private final BufferedReader reader;
+    private long transaction = 0;
+    
+    OfxExpenseFileReader(BufferedReader reader) {
+        this.reader = reader;
+    }
+    
+    @Override
+    public ImportedExpense next() throws IOException {
+        String tag;
+        while ((tag = nextTag()) != null) {
+            if (tag.equals("STMTTRN")) {
+                transaction++;
+                return readTransaction();
+            }
+        }
+        return null;
+    }
+    
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+    
+    private ImportedExpense readTransaction() throws IOException {
+        String posted = null;
+        String amount = null;
+        String name = null;
+        String memo = null;
+        String checkNumber = null;
+        
+        String tag;
+        while ((tag = nextTag()) != null && !tag.equals("/STMTTRN")) {
+            switch (tag) {
+                case "DTPOSTED" -> posted = readValue();
+                case "TRNAMT" -> amount = readValue();
+                case "NAME" -> name = readValue();
+                case "MEMO" -> memo = readValue();
+                case "CHECKNUM" -> checkNumber = readValue();
+                default -> {
+                }
+            }
+        }
+        
+        if (posted == null || amount == null) {
+            return ImportedExpense.invalid(transaction, "Transação sem data ou valor");
+        }
+        
+        LocalDate date;
+        BigDecimal value;
+        try {
+            date = ImportValues.parseDate(posted);
+            value = new BigDecimal(amount.trim().replace(',', '.'));
+        } catch (RuntimeException e) {
+            return ImportedExpense.invalid(transaction, "Data ou valor inválido");
+        }
+        if (value.signum() >= 0) {
+            return ImportedExpense.invalid(transaction, "Lançamento de crédito ignorado");
+        }
+        
+        String description = ImportValues.emptyToNull(memo != null ? memo : name);
+        String observations = memo != null && name != null ? ImportValues.emptyToNull(name) : null;
+        return new ImportedExpense(transaction, date, description, null, value.abs(), null,
+                ImportValues.emptyToNull(checkNumber), observations, null);
+    }
+    
+    // Lê até o próximo "<" e devolve o nome da tag; o texto anterior é descartado.
+    private String nextTag() throws IOException {
+        int c;
+        while ((c = reader.read()) != -1 && c != '<') {
+            // texto fora de tag
+        }
+        if (c == -1) {
+            return null;
+        }
+        StringBuilder name = new StringBuilder();
+        while ((c = reader.read()) != -1 && c != '>') {
+            name.append((char) c);
+        }
+        return c == -1 ? null : name.toString().trim().toUpperCase();
+    }
+    
+    // Valor de uma tag: o texto até a próxima tag, que fica para a leitura seguinte.
+    private String readValue() throws IOException {
+        StringBuilder value = new StringBuilder();
+        reader.mark(1);
+        int c;
+        while ((c = reader.read()) != -1 && c != '<') {
+            value.append((char) c);
+            reader.mark(1);
+        }
+        if (c == '<') {
+            reader.reset();
+        }
+        return decode(value.toString().trim());
+    }
+    
+    private static String decode(String value) {
+        return value.replace("&lt;", "<").replace("&gt;", ">").replace("&amp;", "&");
+    }
+}
@@ -3,63 +3,79 @@ package com.saldoreal.application.service;
 import com.saldoreal.application.dto.AuthRequest;
 import com.saldoreal.application.dto.AuthResponse;
 import com.saldoreal.application.dto.RegisterRequest;
+import com.saldoreal.application.event.UserChangedEvent;
 import com.saldoreal.domain.model.User;
 import com.saldoreal.domain.repository.UserRepository;
 import com.saldoreal.security.JwtTokenProvider;
-import org.springframework.security.authentication.AuthenticationManager;
-//import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-//import org.springframework.security.core.Authentication;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import com.saldoreal.security.PasswordHasher;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+// O hash da senha roda no pool do PasswordHasher; a thread da requisição só faz a consulta
+// do usuário e fica livre enquanto o BCrypt calcula.
 @Service
 public class AuthService {
     
     private final UserRepository userRepository;
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordHasher passwordHasher;
     private final JwtTokenProvider tokenProvider;
-    //private final AuthenticationManager authenticationManager;
+    private final Executor taskExecutor;
+    private final ApplicationEventPublisher eventPublisher;
     
-    public AuthService(UserRepository userRepository, 
-                      PasswordEncoder passwordEncoder,
+    public AuthService(UserRepository userRepository,
+                      PasswordHasher passwordHasher,
                       JwtTokenProvider tokenProvider,
-                      AuthenticationManager authenticationManager) {
+                      @Qualifier("applicationTaskExecutor") Executor taskExecutor,
+                      ApplicationEventPublisher eventPublisher) {
         this.userRepository = userRepository;
-        this.passwordEncoder = passwordEncoder;
+        this.passwordHasher = passwordHasher;
         this.tokenProvider = tokenProvider;
-        //this.authenticationManager = authenticationManager;
+        this.taskExecutor = taskExecutor;
+        this.eventPublisher = eventPublisher;
     }
     
-    @Transactional
-    public AuthResponse register(RegisterRequest request) {
+    // A gravação vai para o executor de tarefas do Spring: as threads do hash só calculam BCrypt e
+    // não ficam presas esperando conexão do pool. O email único da tabela resolve dois cadastros
+    // simultâneos com o mesmo endereço.
+    public CompletableFuture<AuthResponse> register(RegisterRequest request) {
         if (userRepository.existsByEmail(request.getEmail())) {
             throw new RuntimeException("Email já cadastrado");
         }
         
-        User user = new User();
-        user.setEmail(request.getEmail());
-        user.setPassword(passwordEncoder.encode(request.getPassword()));
-        user.setName(request.getName());
-        
-        user = userRepository.save(user);
-        
-        String token = tokenProvider.generateToken(user.getEmail(), user.getId());
-        
-        return new AuthResponse(token, user.getEmail(), user.getName(), user.getId());
+        return passwordHasher.encode(request.getPassword()).thenApplyAsync(hash -> {
+            User user = new User();
+            user.setEmail(request.getEmail());
+            user.setPassword(hash);
+            user.setName(request.getName());
+            
+            user = userRepository.save(user);
+            // Já gravado (o save tem transação própria): tira do cache qualquer entrada antiga do email.
+            eventPublisher.publishEvent(new UserChangedEvent(user.getId(), user.getEmail(), user.getEmail()));
+            
+            String token = tokenProvider.generateToken(user.getEmail(), user.getId());
+            
+            return new AuthResponse(token, user.getEmail(), user.getName(), user.getId());
+        }, taskExecutor);
     }
     
-    public AuthResponse login(AuthRequest request) {
-        //Authentication authentication = authenticationManager.authenticate(
-        //    new UsernamePasswordAuthenticationToken(request.getEmail(), request.getPassword())
-        //);
+    // Email inexistente e senha errada dão a mesma resposta, no mesmo tempo.
+    public CompletableFuture<AuthResponse> login(AuthRequest request) {
+        Optional<User> found = userRepository.findByEmail(request.getEmail());
+        String encodedPassword = found.map(User::getPassword).orElse(null);
         
-        User user = userRepository.findByEmail(request.getEmail())
-                .orElseThrow(() -> new RuntimeException("Usuário não encontrado"));
-        
-        String token = tokenProvider.generateToken(user.getEmail(), user.getId());
-        
-        return new AuthResponse(token, user.getEmail(), user.getName(), user.getId());
+        return passwordHasher.matches(request.getPassword(), encodedPassword).thenApply(matches -> {
+            if (!matches) {
+                throw new RuntimeException("Email ou senha inválidos");
+            }
+            User user = found.get();
+            String token = tokenProvider.generateToken(user.getEmail(), user.getId());
+            
+            return new AuthResponse(token, user.getEmail(), user.getName(), user.getId());
+        });
     }
 }
-
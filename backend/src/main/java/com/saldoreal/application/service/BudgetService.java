@@ -0,0 +1,291 @@
+package com.saldoreal.application.service;
+
+import com.saldoreal.application.dto.BudgetAlertDTO;
+import com.saldoreal.application.dto.BudgetDTO;
+import com.saldoreal.application.event.CategoryChangedEvent;
+import com.saldoreal.domain.model.Category;
+import com.saldoreal.domain.repository.CategoryRepository;
+import com.saldoreal.domain.repository.ExpenseDailyTotalRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+@Service
+public class BudgetService {
+    
+    private static final Logger log = LoggerFactory.getLogger(BudgetService.class);
+    
+    private final ExpenseDailyTotalRepository totalRepository;
+    private final CategoryRepository categoryRepository;
+    private final int[] alertThresholds;
+    
+    // Consumo do mês corrente e limites, em centavos, por usuário e categoria. Montado a partir do
+    // consolidado diário na subida e na virada do mês; depois, cada despesa só soma ao contador
+    // da categoria quando a transação é confirmada. Conferir um orçamento não vai ao banco.
+    private volatile Snapshot snapshot = new Snapshot(YearMonth.of(1970, 1), new ConcurrentHashMap<>());
+    
+    // Lock em vez de synchronized: a recarga consulta o banco, e uma thread virtual bloqueada
+    // dentro de synchronized prende a thread de plataforma que a carrega (Java 21).
+    private final ReentrantLock reloadLock = new ReentrantLock();
+    
+    // Deltas e recargas de um usuário passam pelo lock da sua faixa, e a transação que os registra
+    // o segura do beforeCommit ao fim da transação. Uma recarga lê o banco então inteiramente antes
+    // ou inteiramente depois de um commit e do delta dele: o delta não cai no objeto já substituído
+    // nem é somado de novo sobre um consumo que a recarga já leu do banco.
+    private static final int USER_LOCK_STRIPES = 64;
+    private final ReentrantLock[] userLocks = new ReentrantLock[USER_LOCK_STRIPES];
+    
+    public BudgetService(ExpenseDailyTotalRepository totalRepository,
+                         CategoryRepository categoryRepository,
+                         @Value("${budgets.alert-thresholds:80,100}") int[] alertThresholds) {
+        this.totalRepository = totalRepository;
+        this.categoryRepository = categoryRepository;
+        this.alertThresholds = alertThresholds.clone();
+        Arrays.sort(this.alertThresholds);
+        for (int i = 0; i < USER_LOCK_STRIPES; i++) {
+            userLocks[i] = new ReentrantLock();
+        }
+    }
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        current();
+    }
+    
+    public List<BudgetDTO> getBudgets(Long userId) {
+        LocalDate today = LocalDate.now();
+        UserBudget budget = budgetOf(userId);
+        
+        List<BudgetDTO> budgets = new ArrayList<>();
+        for (Category category : categoryRepository.findByUserId(userId)) {
+            BigDecimal consumed = toAmount(budget.consumed(category.getId()));
+            BigDecimal limit = category.getMonthlyLimit();
+            BigDecimal projected = consumed.multiply(BigDecimal.valueOf(today.lengthOfMonth()))
+                    .divide(BigDecimal.valueOf(today.getDayOfMonth()), 2, RoundingMode.HALF_UP);
+            boolean limited = limit != null && limit.signum() > 0;
+            
+            budgets.add(new BudgetDTO(
+                category.getId(),
+                category.getName(),
+                limit,
+                consumed,
+                limited ? limit.subtract(consumed) : null,
+                projected,
+                limited ? Math.round(consumed.doubleValue() / limit.doubleValue() * 10000) / 100.0 : null
+            ));
+        }
+        return budgets;
+    }
+    
+    // Chamado antes da confirmação, com o contador ainda sem a despesa nova: alerta se ela fizer
+    // o consumo da categoria passar de um dos limiares configurados.
+    public BudgetAlertDTO check(Long userId, Long categoryId, LocalDate date, BigDecimal amount) {
+        Snapshot current = current();
+        if (!YearMonth.from(date).equals(current.month())) {
+            return null;
+        }
+        UserBudget budget = current.budgetOf(userId);
+        Long limit = budget.limits.get(categoryId);
+        if (limit == null || limit <= 0) {
+            return null;
+        }
+        
+        long before = budget.consumed(categoryId);
+        long after = before + toCents(amount);
+        Integer crossed = null;
+        for (int threshold : alertThresholds) {
+            if (before * 100 < threshold * limit && after * 100 >= threshold * limit) {
+                crossed = threshold;
+            }
+        }
+        return crossed != null
+                ? new BudgetAlertDTO(categoryId, crossed, toAmount(limit), toAmount(after))
+                : null;
+    }
+    
+    // Despesa incluída (valor positivo) ou removida (negativo); só vale depois do commit.
+    public void record(Long userId, Long categoryId, LocalDate date, BigDecimal amount) {
+        long cents = toCents(amount);
+        afterCommit(userId, () -> {
+            Snapshot current = current();
+            if (YearMonth.from(date).equals(current.month())) {
+                current.budgetOf(userId).add(categoryId, cents);
+            }
+        });
+    }
+    
+    // Para alterações feitas direto em SQL (importação, operações em massa): relê o mês do usuário.
+    public void reload(Long userId) {
+        afterCommit(userId, () -> reloadUser(userId));
+    }
+    
+    @TransactionalEventListener
+    public void onCategoryChanged(CategoryChangedEvent event) {
+        withUserLock(event.userId(), () -> reloadUser(event.userId()));
+    }
+    
+    private void reloadUser(Long userId) {
+        Snapshot current = current();
+        current.users().put(userId, loadUser(userId, current.month()));
+    }
+    
+    private UserBudget budgetOf(Long userId) {
+        return current().budgetOf(userId);
+    }
+    
+    private Snapshot current() {
+        YearMonth month = YearMonth.now();
+        Snapshot current = snapshot;
+        if (!current.month().equals(month)) {
+            reloadLock.lock();
+            try {
+                current = snapshot;
+                if (!current.month().equals(month)) {
+                    current = load(month);
+                    snapshot = current;
+                }
+            } finally {
+                reloadLock.unlock();
+            }
+        }
+        return current;
+    }
+    
+    private Snapshot load(YearMonth month) {
+        Map<Long, UserBudget> users = new ConcurrentHashMap<>();
+        for (Object[] row : totalRepository.sumMonthByUserAndCategory(month.getYear(), month.getMonthValue())) {
+            users.computeIfAbsent(((Number) row[0]).longValue(), id -> new UserBudget())
+                    .add(((Number) row[1]).longValue(), toCents((BigDecimal) row[2]));
+        }
+        for (Object[] row : categoryRepository.findAllLimits()) {
+            users.computeIfAbsent((Long) row[0], id -> new UserBudget())
+                    .limits.put((Long) row[1], toCents((BigDecimal) row[2]));
+        }
+        log.info("Orçamentos de {} carregados para {} usuários", month, users.size());
+        return new Snapshot(month, users);
+    }
+    
+    private UserBudget loadUser(Long userId, YearMonth month) {
+        UserBudget budget = new UserBudget();
+        for (Object[] row : totalRepository.sumMonthByCategory(userId, month.getYear(), month.getMonthValue())) {
+            budget.add(((Number) row[1]).longValue(), toCents((BigDecimal) row[2]));
+        }
+        for (Object[] row : categoryRepository.findLimitsByUserId(userId)) {
+            budget.limits.put((Long) row[1], toCents((BigDecimal) row[2]));
+        }
+        return budget;
+    }
+    
+    // Fora de transação, executa na hora; dentro, depois do commit, com o lock do usuário tomado
+    // antes dele. As ações de uma transação ficam juntas num único PendingBudget.
+    private void afterCommit(Long userId, Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            withUserLock(userId, action);
+            return;
+        }
+        PendingBudget pending = (PendingBudget) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            pending = new PendingBudget();
+            TransactionSynchronizationManager.bindResource(this, pending);
+            TransactionSynchronizationManager.registerSynchronization(pending);
+        }
+        pending.actions.computeIfAbsent(userId, id -> new ArrayList<>()).add(action);
+    }
+    
+    private void withUserLock(Long userId, Runnable action) {
+        ReentrantLock lock = userLock(userId);
+        lock.lock();
+        try {
+            action.run();
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    private ReentrantLock userLock(Long userId) {
+        return userLocks[(int) Math.floorMod(userId, (long) USER_LOCK_STRIPES)];
+    }
+    
+    private final class PendingBudget implements TransactionSynchronization {
+        
+        private final Map<Long, List<Runnable>> actions = new HashMap<>();
+        private final List<ReentrantLock> held = new ArrayList<>();
+        
+        // Faixas em ordem crescente: duas transações com os mesmos usuários não se travam.
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            SortedSet<Integer> stripes = new TreeSet<>();
+            for (Long userId : actions.keySet()) {
+                stripes.add((int) Math.floorMod(userId, (long) USER_LOCK_STRIPES));
+            }
+            for (int stripe : stripes) {
+                userLocks[stripe].lock();
+                held.add(userLocks[stripe]);
+            }
+        }
+        
+        @Override
+        public void afterCommit() {
+            actions.values().forEach(list -> list.forEach(Runnable::run));
+        }
+        
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(BudgetService.this);
+            for (int i = held.size() - 1; i >= 0; i--) {
+                held.get(i).unlock();
+            }
+        }
+    }
+    
+    private static long toCents(BigDecimal amount) {
+        return amount.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+    
+    private static BigDecimal toAmount(long cents) {
+        return BigDecimal.valueOf(cents, 2);
+    }
+    
+    private record Snapshot(YearMonth month, Map<Long, UserBudget> users) {
+        
+        UserBudget budgetOf(Long userId) {
+            return users.computeIfAbsent(userId, id -> new UserBudget());
+        }
+    }
+    
+    private static final class UserBudget {
+        
+        private final Map<Long, AtomicLong> consumed = new ConcurrentHashMap<>();
+        private final Map<Long, Long> limits = new ConcurrentHashMap<>();
+        
+        long consumed(Long categoryId) {
+            AtomicLong value = consumed.get(categoryId);
+            return value != null ? value.get() : 0;
+        }
+        
+        void add(Long categoryId, long cents) {
+            consumed.computeIfAbsent(categoryId, id -> new AtomicLong()).addAndGet(cents);
+        }
+    }
+}
@@ -1,10 +1,12 @@
 package com.saldoreal.application.service;
 
 import com.saldoreal.application.dto.CategoryDTO;
+import com.saldoreal.application.event.CategoryChangedEvent;
 import com.saldoreal.domain.model.Category;
 import com.saldoreal.domain.model.User;
 import com.saldoreal.domain.repository.CategoryRepository;
 import com.saldoreal.domain.repository.UserRepository;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -16,17 +18,19 @@ public class CategoryService {
     
     private final CategoryRepository categoryRepository;
     private final UserRepository userRepository;
+    private final ApplicationEventPublisher eventPublisher;
     
     public CategoryService(CategoryRepository categoryRepository,
-                          UserRepository userRepository) {
+                          UserRepository userRepository,
+                          ApplicationEventPublisher eventPublisher) {
         this.categoryRepository = categoryRepository;
         this.userRepository = userRepository;
+        this.eventPublisher = eventPublisher;
     }
     
     @Transactional
     public CategoryDTO create(CategoryDTO dto, Long userId) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new RuntimeException("Usuário não encontrado"));
+        User user = userRepository.getReferenceById(userId);
         
         Category category = new Category();
         category.setName(dto.getName());
@@ -36,17 +40,13 @@ public class CategoryService {
         category.setUser(user);
         
         category = categoryRepository.save(category);
+        eventPublisher.publishEvent(new CategoryChangedEvent(userId, category.getId()));
         return toDTO(category);
     }
     
     @Transactional
     public CategoryDTO update(Long id, CategoryDTO dto, Long userId) {
-        Category category = categoryRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Categoria não encontrada"));
-        
-        if (!category.getUser().getId().equals(userId)) {
-            throw new RuntimeException("Acesso negado");
-        }
+        Category category = findOwned(id, userId);
         
         category.setName(dto.getName());
         category.setMonthlyLimit(dto.getMonthlyLimit());
@@ -54,19 +54,16 @@ public class CategoryService {
         category.setIcon(dto.getIcon());
         
         category = categoryRepository.save(category);
+        eventPublisher.publishEvent(new CategoryChangedEvent(userId, category.getId()));
         return toDTO(category);
     }
     
     @Transactional
     public void delete(Long id, Long userId) {
-        Category category = categoryRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Categoria não encontrada"));
-        
-        if (!category.getUser().getId().equals(userId)) {
-            throw new RuntimeException("Acesso negado");
+        if (categoryRepository.deleteByIdAndUserId(id, userId) == 0) {
+            throw new RuntimeException("Categoria não encontrada");
         }
-        
-        categoryRepository.delete(category);
+        eventPublisher.publishEvent(new CategoryChangedEvent(userId, id));
     }
     
     public List<CategoryDTO> findAll(Long userId) {
@@ -76,14 +73,12 @@ public class CategoryService {
     }
     
     public CategoryDTO findById(Long id, Long userId) {
-        Category category = categoryRepository.findById(id)
+        return toDTO(findOwned(id, userId));
+    }
+    
+    private Category findOwned(Long id, Long userId) {
+        return categoryRepository.findByIdAndUserId(id, userId)
                 .orElseThrow(() -> new RuntimeException("Categoria não encontrada"));
-        
-        if (!category.getUser().getId().equals(userId)) {
-            throw new RuntimeException("Acesso negado");
-        }
-        
-        return toDTO(category);
     }
     
     private CategoryDTO toDTO(Category category) {
@@ -1,79 +1,252 @@
 package com.saldoreal.application.service;
 
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
 import com.saldoreal.application.dto.DashboardDTO;
-import com.saldoreal.domain.repository.ExpenseRepository;
+import com.saldoreal.application.event.CategoryChangedEvent;
+import com.saldoreal.application.event.ExpenseChangedEvent;
+import com.saldoreal.domain.repository.DashboardRow;
+import com.saldoreal.domain.repository.ExpenseDailyTotalRepository;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
 
 import java.math.BigDecimal;
-import java.math.RoundingMode;
+import java.time.Duration;
 import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.Predicate;
 
 @Service
 public class DashboardService {
     
-    private final ExpenseRepository expenseRepository;
+    private final ExpenseDailyTotalRepository totalRepository;
     
-    public DashboardService(ExpenseRepository expenseRepository) {
-        this.expenseRepository = expenseRepository;
+    // Dashboards por usuário e período, guardados como futuros: o cálculo em andamento já
+    // fica visível no cache, então requisições simultâneas para a mesma chave esperam por ele
+    // e uma invalidação que chegue no meio do cálculo descarta o resultado.
+    private final AsyncCache<DashboardKey, DashboardDTO> cache;
+    
+    // Chaves do cache por usuário, para que uma alteração invalide só as entradas do próprio usuário
+    // sem percorrer o cache inteiro. Pode conter chaves já removidas do cache por instantes, nunca
+    // deixar de conter uma presente: a chave entra antes e de novo depois da inclusão no cache, e a
+    // remoção volta atrás se a chave estiver de novo no cache.
+    private final Map<Long, Set<DashboardKey>> keysByUser = new ConcurrentHashMap<>();
+    
+    public DashboardService(ExpenseDailyTotalRepository totalRepository,
+                            @Value("${dashboard.cache.ttl:10m}") Duration ttl,
+                            @Value("${dashboard.cache.max-size:10000}") long maxSize) {
+        this.totalRepository = totalRepository;
+        this.cache = Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .maximumSize(maxSize)
+                .executor(Runnable::run)
+                .removalListener((DashboardKey key, DashboardDTO value, RemovalCause cause) -> unindex(key))
+                .buildAsync();
     }
     
-    public DashboardDTO getDashboard(Long userId) {
-        LocalDate now = LocalDate.now();
-        int currentYear = now.getYear();
-        int currentMonth = now.getMonthValue();
+    public DashboardDTO getDashboard(Long userId, YearMonth month, LocalDate startDate, LocalDate endDate) {
+        DashboardKey key = key(userId, month, startDate, endDate);
         
-        int previousYear = currentYear;
-        int previousMonth = currentMonth - 1;
-        if (previousMonth == 0) {
-            previousMonth = 12;
-            previousYear = currentYear - 1;
+        CompletableFuture<DashboardDTO> created = new CompletableFuture<>();
+        CompletableFuture<DashboardDTO> existing = putIfAbsent(key, created);
+        if (existing != null) {
+            return join(existing);
         }
         
-        BigDecimal totalMesAtual = expenseRepository.getTotalByMonth(userId, currentYear, currentMonth);
-        if (totalMesAtual == null) totalMesAtual = BigDecimal.ZERO;
-        
-        BigDecimal totalMesAnterior = expenseRepository.getTotalByMonth(userId, previousYear, previousMonth);
-        if (totalMesAnterior == null) totalMesAnterior = BigDecimal.ZERO;
+        // O cálculo roda na própria thread da requisição; um futuro com erro sai do cache sozinho.
+        try {
+            created.complete(load(key));
+        } catch (Throwable e) {
+            created.completeExceptionally(e);
+            throw e;
+        }
+        return created.join();
+    }
+    
+    // Mesmo cache para a leitura reativa: as linhas chegam num futuro e nenhuma thread espera pelo banco.
+    CompletableFuture<DashboardDTO> getDashboardAsync(DashboardKey key,
+                                                      Function<DashboardKey, CompletableFuture<List<DashboardRow>>> loader) {
+        CompletableFuture<DashboardDTO> created = new CompletableFuture<>();
+        CompletableFuture<DashboardDTO> existing = putIfAbsent(key, created);
+        if (existing != null) {
+            return existing;
+        }
+        // Toda falha, inclusive um Error, precisa completar o futuro: um futuro pendente no cache
+        // travaria as próximas requisições da chave até o TTL; com erro, ele sai do cache sozinho.
+        CompletableFuture<List<DashboardRow>> rows;
+        try {
+            rows = loader.apply(key);
+        } catch (Throwable e) {
+            created.completeExceptionally(e);
+            return created;
+        }
+        rows.whenComplete((loaded, error) -> {
+            if (error != null) {
+                created.completeExceptionally(error);
+                return;
+            }
+            try {
+                created.complete(assemble(key.start(), key.end(), loaded));
+            } catch (Throwable e) {
+                created.completeExceptionally(e);
+            }
+        });
+        return created;
+    }
+    
+    // Período: startDate/endDate quando informados, senão o mês pedido (padrão: mês atual).
+    // O período anterior tem o mesmo tamanho e termina na véspera do início.
+    static DashboardKey key(Long userId, YearMonth month, LocalDate startDate, LocalDate endDate) {
+        LocalDate today = LocalDate.now();
+        LocalDate start;
+        LocalDate end;
+        LocalDate previousStart;
+        LocalDate seriesEnd;
         
-        BigDecimal percentualVariacao = BigDecimal.ZERO;
-        if (totalMesAnterior.compareTo(BigDecimal.ZERO) > 0) {
-            percentualVariacao = totalMesAtual
-                    .subtract(totalMesAnterior)
-                    .divide(totalMesAnterior, 4, RoundingMode.HALF_UP)
-                    .multiply(new BigDecimal("100"));
+        if (startDate != null || endDate != null) {
+            if (startDate == null || endDate == null) {
+                throw new RuntimeException("Informe startDate e endDate");
+            }
+            if (endDate.isBefore(startDate)) {
+                throw new RuntimeException("startDate deve ser anterior a endDate");
+            }
+            start = startDate;
+            end = endDate;
+            previousStart = start.minusDays(ChronoUnit.DAYS.between(start, end) + 1);
+            seriesEnd = end;
+        } else {
+            YearMonth period = month != null ? month : YearMonth.from(today);
+            start = period.atDay(1);
+            end = period.atEndOfMonth();
+            previousStart = period.minusMonths(1).atDay(1);
+            // No mês corrente a série diária vai só até hoje.
+            seriesEnd = period.equals(YearMonth.from(today)) ? today : end;
         }
         
-        List<Map<String, Object>> gastosPorCategoria = new ArrayList<>();
-        List<Object[]> categoriaData = expenseRepository.getTotalByCategory(userId, currentYear, currentMonth);
-        for (Object[] row : categoriaData) {
-            Map<String, Object> item = new HashMap<>();
-            item.put("categoria", row[0]);
-            item.put("total", row[1]);
-            gastosPorCategoria.add(item);
+        return new DashboardKey(userId, previousStart, start, end, seriesEnd);
+    }
+    
+    // Invalidação após o commit: só as entradas do usuário cujo intervalo (período atual
+    // mais o anterior) contém alguma das datas com totais alterados.
+    @TransactionalEventListener
+    public void onExpenseChanged(ExpenseChangedEvent event) {
+        invalidate(event.userId(), key -> event.totalDates().stream().anyMatch(key::covers));
+    }
+    
+    // O nome da categoria aparece em todos os dashboards do usuário.
+    @TransactionalEventListener
+    public void onCategoryChanged(CategoryChangedEvent event) {
+        invalidate(event.userId(), key -> true);
+    }
+    
+    private void invalidate(Long userId, Predicate<DashboardKey> filter) {
+        Set<DashboardKey> keys = keysByUser.get(userId);
+        if (keys == null) {
+            return;
+        }
+        for (DashboardKey key : keys) {
+            if (filter.test(key)) {
+                cache.asMap().remove(key);
+            }
+        }
+    }
+    
+    private CompletableFuture<DashboardDTO> putIfAbsent(DashboardKey key, CompletableFuture<DashboardDTO> created) {
+        Set<DashboardKey> keys = keysByUser.computeIfAbsent(key.userId(), id -> ConcurrentHashMap.newKeySet());
+        keys.add(key);
+        CompletableFuture<DashboardDTO> existing = cache.asMap().putIfAbsent(key, created);
+        keys.add(key);
+        return existing;
+    }
+    
+    // O conjunto vazio de um usuário fica no mapa: removê-lo abriria uma corrida com putIfAbsent,
+    // e há no máximo um por usuário.
+    private void unindex(DashboardKey key) {
+        Set<DashboardKey> keys = keysByUser.get(key.userId());
+        if (keys != null) {
+            keys.remove(key);
+            if (cache.asMap().containsKey(key)) {
+                keys.add(key);
+            }
+        }
+    }
+    
+    private static DashboardDTO join(CompletableFuture<DashboardDTO> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
         }
+    }
+    
+    private DashboardDTO load(DashboardKey key) {
+        List<DashboardRow> rows = totalRepository.getDashboard(
+            key.userId(),
+            key.previousStart().getYear(), key.previousStart().getMonthValue(), key.previousStart().getDayOfMonth(),
+            key.end().getYear(), key.end().getMonthValue(), key.end().getDayOfMonth(),
+            key.start(),
+            key.seriesEnd()
+        );
+        return assemble(key.start(), key.end(), rows);
+    }
+    
+    public static DashboardDTO assemble(LocalDate start, LocalDate end, List<DashboardRow> rows) {
+        BigDecimal totalAtual = BigDecimal.ZERO;
+        BigDecimal totalAnterior = BigDecimal.ZERO;
+        List<DashboardDTO.CategoryTotal> porCategoria = new ArrayList<>();
+        List<DashboardDTO.DailyTotal> porDia = new ArrayList<>();
         
-        LocalDate startDate = LocalDate.of(currentYear, currentMonth, 1);
-        LocalDate endDate = now;
-        List<Map<String, Object>> gastosPorPeriodo = new ArrayList<>();
-        List<Object[]> periodoData = expenseRepository.getTotalByPeriod(userId, startDate, endDate);
-        for (Object[] row : periodoData) {
-            Map<String, Object> item = new HashMap<>();
-            item.put("data", row[0].toString());
-            item.put("total", row[1]);
-            gastosPorPeriodo.add(item);
+        for (DashboardRow row : rows) {
+            switch (row.getTipo()) {
+                case "T" -> {
+                    if (row.getTotal() != null) totalAtual = row.getTotal();
+                    if (row.getTotalAnterior() != null) totalAnterior = row.getTotalAnterior();
+                }
+                case "C" -> porCategoria.add(new DashboardDTO.CategoryTotal(row.getRotulo(), row.getTotal()));
+                case "D" -> porDia.add(new DashboardDTO.DailyTotal(row.getData(), row.getTotal()));
+                default -> {
+                }
+            }
         }
         
         return new DashboardDTO(
-            totalMesAtual,
-            totalMesAnterior,
-            percentualVariacao,
-            gastosPorCategoria,
-            gastosPorPeriodo
+            start,
+            end,
+            totalAtual,
+            totalAnterior,
+            percentChange(totalAtual.doubleValue(), totalAnterior.doubleValue()),
+            porCategoria,
+            porDia
         );
     }
+    
+    // Só exibição: double basta, arredondado a duas casas.
+    static double percentChange(double current, double previous) {
+        if (previous <= 0) {
+            return 0;
+        }
+        return Math.round((current - previous) / previous * 10000) / 100.0;
+    }
+    
+    record DashboardKey(Long userId, LocalDate previousStart, LocalDate start, LocalDate end,
+                                LocalDate seriesEnd) {
+        
+        boolean covers(LocalDate date) {
+            return !date.isBefore(previousStart) && !date.isAfter(end);
+        }
+    }
 }
-
@@ -0,0 +1,362 @@
+package com.saldoreal.application.service;
+
+import com.saldoreal.application.dto.BudgetDTO;
+import com.saldoreal.application.dto.ExpenseEventDTO;
+import com.saldoreal.application.dto.MonthTotalsDTO;
+import com.saldoreal.application.event.CategoryChangedEvent;
+import com.saldoreal.application.event.ExpenseChangedEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Stream de eventos por usuário (/events). Cada mudança confirmada entra na janela de agrupamento
+// do usuário; ao fim dela, um único lote de eventos segue para todas as conexões dele. Cada
+// conexão tem um buffer limitado: um cliente lento que o enche perde os pendentes e recebe
+// "reset", para recarregar tudo. A conexão aberta não prende thread de requisição; os envios
+// usam um pool pequeno próprio.
+@Service
+public class EventStreamService {
+    
+    private static final Logger log = LoggerFactory.getLogger(EventStreamService.class);
+    
+    // Acima disso, as despesas de uma janela viram um único "expenses" com as datas, para recarregar.
+    private static final int MAX_EXPENSE_EVENTS = 50;
+    
+    private static final Message CONNECTED = new Message(null, "conectado");
+    private static final Message HEARTBEAT = new Message(null, "ping");
+    private static final Message RESET = new Message("reset", Map.of());
+    
+    private final BudgetService budgetService;
+    private final Duration coalesceWindow;
+    private final Duration timeout;
+    private final int bufferSize;
+    private final int maxStreamsPerUser;
+    private final ScheduledExecutorService scheduler;
+    private final Executor senders;
+    private final Map<Long, UserChannel> channels = new ConcurrentHashMap<>();
+    private final AtomicInteger openStreams = new AtomicInteger();
+    private final Counter sentCounter;
+    private final Counter resetCounter;
+    
+    public EventStreamService(BudgetService budgetService,
+                              MeterRegistry registry,
+                              @Value("${events.coalesce-window:250ms}") Duration coalesceWindow,
+                              @Value("${events.timeout:30m}") Duration timeout,
+                              @Value("${events.heartbeat:25s}") Duration heartbeat,
+                              @Value("${events.buffer-size:100}") int bufferSize,
+                              @Value("${events.max-streams-per-user:5}") int maxStreamsPerUser,
+                              @Value("${events.senders:4}") int senderCount,
+                              @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        this.budgetService = budgetService;
+        this.coalesceWindow = coalesceWindow;
+        this.timeout = timeout;
+        this.bufferSize = bufferSize;
+        this.maxStreamsPerUser = maxStreamsPerUser;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(daemon("eventos-agenda"));
+        // Com threads virtuais, cada conexão escreve na sua própria thread: um cliente lento
+        // bloqueia só a dele, sem ocupar uma das poucas threads do pool fixo.
+        this.senders = virtualThreads
+                ? new VirtualThreadTaskExecutor("eventos-envio-")
+                : Executors.newFixedThreadPool(senderCount, daemon("eventos-envio"));
+        
+        Gauge.builder("saldoreal.events.streams", openStreams, AtomicInteger::get)
+                .description("Conexões abertas em /events")
+                .register(registry);
+        this.sentCounter = Counter.builder("saldoreal.events.sent")
+                .description("Eventos enviados")
+                .register(registry);
+        this.resetCounter = Counter.builder("saldoreal.events.resets")
+                .description("Buffers de conexão cheios, descartados e trocados por reset")
+                .register(registry);
+        
+        // Comentários periódicos mantêm proxies abertos e revelam conexões já fechadas pelo cliente.
+        long period = heartbeat.toMillis();
+        scheduler.scheduleAtFixedRate(this::heartbeat, period, period, TimeUnit.MILLISECONDS);
+    }
+    
+    public SseEmitter subscribe(Long userId) {
+        SseEmitter emitter = new SseEmitter(timeout.toMillis());
+        Subscriber subscriber = new Subscriber(userId, emitter);
+        
+        List<Subscriber> evicted = new ArrayList<>();
+        channels.compute(userId, (id, channel) -> {
+            UserChannel current = channel != null ? channel : new UserChannel(id);
+            current.subscribers.add(subscriber);
+            // Abas esquecidas abertas: passando do limite, as conexões mais antigas são encerradas.
+            while (current.subscribers.size() > maxStreamsPerUser) {
+                evicted.add(current.subscribers.remove(0));
+            }
+            return current;
+        });
+        openStreams.incrementAndGet();
+        evicted.forEach(Subscriber::close);
+        
+        emitter.onCompletion(() -> unsubscribe(subscriber));
+        emitter.onTimeout(emitter::complete);
+        emitter.onError(error -> unsubscribe(subscriber));
+        
+        subscriber.offer(List.of(CONNECTED));
+        return emitter;
+    }
+    
+    @TransactionalEventListener
+    public void onExpenseChanged(ExpenseChangedEvent event) {
+        UserChannel channel = channels.get(event.userId());
+        if (channel != null) {
+            channel.expenseChanged(event);
+        }
+    }
+    
+    @TransactionalEventListener
+    public void onCategoryChanged(CategoryChangedEvent event) {
+        UserChannel channel = channels.get(event.userId());
+        if (channel != null) {
+            channel.categoryChanged(event.categoryId());
+        }
+    }
+    
+    private void unsubscribe(Subscriber subscriber) {
+        if (!subscriber.markClosed()) {
+            return;
+        }
+        openStreams.decrementAndGet();
+        channels.computeIfPresent(subscriber.userId, (id, channel) -> {
+            channel.subscribers.remove(subscriber);
+            return channel.subscribers.isEmpty() ? null : channel;
+        });
+    }
+    
+    private void flush(UserChannel channel) {
+        List<Message> messages = new ArrayList<>();
+        boolean totals;
+        synchronized (channel) {
+            if (channel.bulk || channel.expenses.size() > MAX_EXPENSE_EVENTS) {
+                messages.add(new Message("expenses", Map.of("dates", List.copyOf(channel.dates))));
+            } else {
+                channel.expenses.values().forEach(expense -> messages.add(new Message("expense", expense)));
+            }
+            if (!channel.categories.isEmpty()) {
+                messages.add(new Message("categories", Map.of("categoryIds", List.copyOf(channel.categories))));
+            }
+            totals = channel.totals;
+            channel.reset();
+        }
+        
+        if (totals) {
+            messages.add(new Message("totals", totals(channel.userId)));
+        }
+        channel.subscribers.forEach(subscriber -> subscriber.offer(messages));
+    }
+    
+    private MonthTotalsDTO totals(Long userId) {
+        List<BudgetDTO> categories = budgetService.getBudgets(userId);
+        BigDecimal total = categories.stream()
+                .map(BudgetDTO::getConsumed)
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        return new MonthTotalsDTO(YearMonth.now().toString(), total, categories);
+    }
+    
+    private void heartbeat() {
+        channels.values().forEach(channel -> channel.subscribers.forEach(subscriber -> subscriber.offer(List.of(HEARTBEAT))));
+    }
+    
+    // Encerra os streams antes do desligamento gracioso do servidor, que esperaria por eles.
+    @EventListener(ContextClosedEvent.class)
+    public void closeAll() {
+        channels.values().forEach(channel -> channel.subscribers.forEach(Subscriber::close));
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+        if (senders instanceof ExecutorService executor) {
+            executor.shutdownNow();
+        }
+    }
+    
+    private static ThreadFactory daemon(String name) {
+        AtomicInteger threadNumber = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, name + "-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+    
+    // Sem nome, vira um comentário SSE (": ...").
+    private record Message(String name, Object data) {
+    }
+    
+    private final class UserChannel {
+        
+        private final Long userId;
+        private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+        
+        // Mudanças da janela atual, guardadas pelo monitor do canal.
+        private final Map<Long, ExpenseEventDTO> expenses = new LinkedHashMap<>();
+        private final Set<LocalDate> dates = new TreeSet<>();
+        private final Set<Long> categories = new HashSet<>();
+        private boolean bulk;
+        private boolean totals;
+        private boolean scheduled;
+        
+        UserChannel(Long userId) {
+            this.userId = userId;
+        }
+        
+        synchronized void expenseChanged(ExpenseChangedEvent event) {
+            dates.addAll(event.dates());
+            totals |= !event.totalDates().isEmpty();
+            if (event.expense() == null) {
+                bulk = true;
+            } else {
+                merge(event.action(), event);
+            }
+            schedule();
+        }
+        
+        synchronized void categoryChanged(Long categoryId) {
+            categories.add(categoryId);
+            totals = true;
+            schedule();
+        }
+        
+        // Várias ações sobre a mesma despesa na janela viram uma: incluída e alterada segue como
+        // incluída, com os dados finais; incluída e excluída some.
+        private void merge(ExpenseChangedEvent.Action action, ExpenseChangedEvent event) {
+            Long id = event.expense().getId();
+            ExpenseEventDTO previous = expenses.remove(id);
+            boolean created = previous != null && ExpenseChangedEvent.Action.CREATED.name().equals(previous.getAction());
+            if (created && action == ExpenseChangedEvent.Action.DELETED) {
+                return;
+            }
+            String merged = created ? ExpenseChangedEvent.Action.CREATED.name() : action.name();
+            expenses.put(id, new ExpenseEventDTO(merged, event.expense()));
+        }
+        
+        private void schedule() {
+            if (!scheduled) {
+                scheduled = true;
+                scheduler.schedule(() -> senders.execute(() -> flush(this)),
+                        coalesceWindow.toMillis(), TimeUnit.MILLISECONDS);
+            }
+        }
+        
+        private void reset() {
+            expenses.clear();
+            dates.clear();
+            categories.clear();
+            bulk = false;
+            totals = false;
+            scheduled = false;
+        }
+    }
+    
+    private final class Subscriber {
+        
+        private final Long userId;
+        private final SseEmitter emitter;
+        
+        // Pendentes desta conexão, guardados pelo monitor do assinante; só um envio por vez.
+        private final Deque<Message> buffer = new ArrayDeque<>();
+        private boolean draining;
+        private boolean closed;
+        
+        Subscriber(Long userId, SseEmitter emitter) {
+            this.userId = userId;
+            this.emitter = emitter;
+        }
+        
+        void offer(List<Message> messages) {
+            synchronized (this) {
+                if (closed) {
+                    return;
+                }
+                if (buffer.size() + messages.size() > bufferSize) {
+                    buffer.clear();
+                    buffer.add(RESET);
+                    resetCounter.increment();
+                } else {
+                    buffer.addAll(messages);
+                }
+                if (draining) {
+                    return;
+                }
+                draining = true;
+            }
+            senders.execute(this::drain);
+        }
+        
+        private void drain() {
+            while (true) {
+                Message message;
+                synchronized (this) {
+                    message = closed ? null : buffer.poll();
+                    if (message == null) {
+                        draining = false;
+                        return;
+                    }
+                }
+                try {
+                    emitter.send(message.name() == null
+                            ? SseEmitter.event().comment(String.valueOf(message.data()))
+                            : SseEmitter.event().name(message.name()).data(message.data(), MediaType.APPLICATION_JSON));
+                    sentCounter.increment();
+                } catch (IOException | IllegalStateException e) {
+                    log.debug("Conexão de eventos encerrada: {}", e.getMessage());
+                    close();
+                }
+            }
+        }
+        
+        synchronized boolean markClosed() {
+            if (closed) {
+                return false;
+            }
+            closed = true;
+            buffer.clear();
+            return true;
+        }
+        
+        // Depois de uma falha de envio o emitter ignora complete(): a conexão sai do canal aqui mesmo.
+        void close() {
+            unsubscribe(this);
+            emitter.complete();
+        }
+    }
+}
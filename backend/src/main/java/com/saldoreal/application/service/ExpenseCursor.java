@@ -0,0 +1,80 @@
+package com.saldoreal.application.service;
+
+import com.saldoreal.application.dto.ExpenseDTO;
+import com.saldoreal.domain.repository.ExpenseKeyset;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Base64;
+
+// Cursor opaco da paginação por chave: "ordenação|direção|sentido|id|valor" em Base64 URL.
+// O valor vai por último porque a descrição pode conter o separador.
+final class ExpenseCursor {
+    
+    private static final String SEPARATOR = "|";
+    private static final String NEXT = "n";
+    private static final String PREV = "p";
+    
+    private ExpenseCursor() {
+    }
+    
+    static String next(String sortBy, boolean ascending, ExpenseDTO last) {
+        return encode(sortBy, ascending, NEXT, last);
+    }
+    
+    static String prev(String sortBy, boolean ascending, ExpenseDTO first) {
+        return encode(sortBy, ascending, PREV, first);
+    }
+    
+    static ExpenseKeyset decode(String cursor, String sortBy, boolean ascending) {
+        if (cursor == null || cursor.isBlank()) {
+            return new ExpenseKeyset(sortBy, ascending, false, null, null);
+        }
+        
+        String[] parts;
+        try {
+            parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\|", 5);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Cursor inválido");
+        }
+        if (parts.length != 5) {
+            throw new IllegalArgumentException("Cursor inválido");
+        }
+        // O cursor só vale para a ordenação em que foi gerado.
+        if (!parts[0].equals(sortBy) || Boolean.parseBoolean(parts[1]) != ascending) {
+            throw new IllegalArgumentException("Cursor não corresponde à ordenação informada");
+        }
+        
+        try {
+            return new ExpenseKeyset(sortBy, ascending, PREV.equals(parts[2]),
+                    parseValue(sortBy, parts[4]), Long.valueOf(parts[3]));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Cursor inválido");
+        }
+    }
+    
+    private static String encode(String sortBy, boolean ascending, String direction, ExpenseDTO row) {
+        String raw = sortBy + SEPARATOR + ascending + SEPARATOR + direction + SEPARATOR +
+                row.getId() + SEPARATOR + valueOf(sortBy, row);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+    
+    private static String valueOf(String sortBy, ExpenseDTO row) {
+        return switch (sortBy) {
+            case "date" -> row.getDate().toString();
+            case "amount" -> row.getAmount().toPlainString();
+            case "description" -> row.getDescription();
+            default -> String.valueOf(row.getId());
+        };
+    }
+    
+    private static Object parseValue(String sortBy, String value) {
+        return switch (sortBy) {
+            case "date" -> LocalDate.parse(value);
+            case "amount" -> new BigDecimal(value);
+            case "description" -> value;
+            default -> Long.valueOf(value);
+        };
+    }
+}
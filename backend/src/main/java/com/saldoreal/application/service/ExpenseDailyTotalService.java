@@ -0,0 +1,96 @@
+package com.saldoreal.application.service;
+
+import com.saldoreal.domain.model.Expense;
+import com.saldoreal.domain.repository.ExpenseDailyTotalRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Collectors;
+
+@Service
+public class ExpenseDailyTotalService {
+    
+    private final ExpenseDailyTotalRepository totalRepository;
+    private final BudgetService budgetService;
+    
+    public ExpenseDailyTotalService(ExpenseDailyTotalRepository totalRepository, BudgetService budgetService) {
+        this.totalRepository = totalRepository;
+        this.budgetService = budgetService;
+    }
+    
+    // Chamados dentro da transação da despesa, para que o consolidado nunca
+    // fique à frente (ou atrás) da tabela despesas.
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void add(Expense expense) {
+        apply(expense.getUser().getId(), expense.getCategory().getId(), expense.getDate(), expense.getAmount(), 1);
+    }
+    
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void remove(Expense expense) {
+        apply(expense.getUser().getId(), expense.getCategory().getId(), expense.getDate(), expense.getAmount().negate(), -1);
+    }
+    
+    // Para inserções em lote: as despesas já devem ter sido enviadas ao banco (flush).
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void addAll(Collection<Long> expenseIds) {
+        if (!expenseIds.isEmpty()) {
+            totalRepository.addExpenses(expenseIds.toArray(new Long[0]));
+        }
+    }
+    
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void apply(Long userId, Long categoryId, LocalDate date, BigDecimal amount, int count) {
+        int year = date.getYear();
+        int month = date.getMonthValue();
+        int day = date.getDayOfMonth();
+        
+        totalRepository.addToDay(userId, year, month, day, categoryId, amount, count);
+        if (count < 0) {
+            totalRepository.deleteIfEmpty(userId, year, month, day, categoryId);
+        }
+        budgetService.record(userId, categoryId, date, amount);
+    }
+    
+    @Transactional
+    public int rebuild(Long userId) {
+        totalRepository.lockForRebuild();
+        totalRepository.deleteByUserId(userId);
+        return totalRepository.rebuildFromExpenses(userId);
+    }
+    
+    @Transactional
+    public int rebuildAll() {
+        totalRepository.lockForRebuild();
+        totalRepository.deleteAllTotals();
+        return totalRepository.rebuildAllFromExpenses();
+    }
+    
+    @Transactional(readOnly = true)
+    public List<Discrepancy> findDiscrepancies() {
+        return totalRepository.findDiscrepancies().stream()
+                .map(row -> new Discrepancy(
+                    ((Number) row[0]).longValue(),
+                    LocalDate.of(((Number) row[1]).intValue(), ((Number) row[2]).intValue(), ((Number) row[3]).intValue()),
+                    ((Number) row[4]).longValue(),
+                    (BigDecimal) row[5],
+                    (BigDecimal) row[6],
+                    row[7] != null ? ((Number) row[7]).intValue() : null,
+                    row[8] != null ? ((Number) row[8]).intValue() : null
+                ))
+                .collect(Collectors.toList());
+    }
+    
+    public record Discrepancy(Long userId,
+                              LocalDate date,
+                              Long categoryId,
+                              BigDecimal storedTotal,
+                              BigDecimal expectedTotal,
+                              Integer storedCount,
+                              Integer expectedCount) {
+    }
+}
@@ -0,0 +1,44 @@
+package com.saldoreal.application.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.saldoreal.application.dto.ExpenseFilterDTO;
+import com.saldoreal.application.exporter.ExpenseFileWriter;
+import com.saldoreal.application.exporter.ExportFormat;
+import com.saldoreal.domain.repository.ExpenseRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+
+@Service
+public class ExpenseExportService {
+    
+    private final ExpenseRepository expenseRepository;
+    private final ObjectMapper objectMapper;
+    
+    public ExpenseExportService(ExpenseRepository expenseRepository, ObjectMapper objectMapper) {
+        this.expenseRepository = expenseRepository;
+        this.objectMapper = objectMapper;
+    }
+    
+    // A transação mantém o cursor do banco aberto enquanto as linhas são escritas.
+    // Se o cliente desconectar, a escrita falha, a consulta é abortada e a conexão volta ao pool.
+    @Transactional(readOnly = true)
+    public void export(ExpenseFilterDTO filter, ExportFormat format, Long userId, OutputStream out) throws IOException {
+        ExpenseFileWriter writer = format.open(out, objectMapper);
+        try {
+            expenseRepository.exportWithFilters(userId, filter, row -> {
+                try {
+                    writer.write(row);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        writer.finish();
+    }
+}
@@ -0,0 +1,242 @@
+package com.saldoreal.application.service;
+
+import com.saldoreal.application.dto.ImportResultDTO;
+import com.saldoreal.application.event.ExpenseChangedEvent;
+import com.saldoreal.application.importer.ExpenseFileReader;
+import com.saldoreal.application.importer.ImportFormat;
+import com.saldoreal.application.importer.ImportedExpense;
+import com.saldoreal.domain.model.Category;
+import com.saldoreal.domain.model.Expense;
+import com.saldoreal.domain.model.User;
+import com.saldoreal.domain.repository.CategoryRepository;
+import com.saldoreal.domain.repository.UserRepository;
+import jakarta.persistence.EntityManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.charset.Charset;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+@Service
+public class ExpenseImportService {
+    
+    private static final Logger log = LoggerFactory.getLogger(ExpenseImportService.class);
+    
+    // Linhas gravadas por transação; o Hibernate as envia em lotes de hibernate.jdbc.batch_size.
+    private static final int BATCH_SIZE = 1000;
+    private static final int MAX_REPORTED_ERRORS = 1000;
+    private static final BigDecimal MAX_AMOUNT = new BigDecimal("99999999.99");
+    
+    private final EntityManager entityManager;
+    private final CategoryRepository categoryRepository;
+    private final UserRepository userRepository;
+    private final ExpenseDailyTotalService dailyTotalService;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final BudgetService budgetService;
+    
+    public ExpenseImportService(EntityManager entityManager,
+                                CategoryRepository categoryRepository,
+                                UserRepository userRepository,
+                                ExpenseDailyTotalService dailyTotalService,
+                                PlatformTransactionManager transactionManager,
+                                ApplicationEventPublisher eventPublisher,
+                                BudgetService budgetService) {
+        this.entityManager = entityManager;
+        this.categoryRepository = categoryRepository;
+        this.userRepository = userRepository;
+        this.dailyTotalService = dailyTotalService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.eventPublisher = eventPublisher;
+        this.budgetService = budgetService;
+    }
+    
+    // Lê o arquivo em fluxo e grava em transações de BATCH_SIZE linhas: um erro numa linha
+    // é reportado sem interromper a importação, e a memória usada não depende do tamanho do arquivo.
+    public ImportResultDTO importFile(InputStream in, ImportFormat format, Charset charset,
+                                      Long defaultCategoryId, Long userId) throws IOException {
+        if (!userRepository.existsById(userId)) {
+            throw new RuntimeException("Usuário não encontrado");
+        }
+        
+        // Categorias do usuário carregadas uma única vez, pelo nome sem diferenciar maiúsculas.
+        Map<String, Long> categories = new HashMap<>();
+        for (Category category : categoryRepository.findByUserId(userId)) {
+            categories.putIfAbsent(category.getName().trim().toLowerCase(), category.getId());
+        }
+        if (defaultCategoryId != null && !categories.containsValue(defaultCategoryId)) {
+            throw new RuntimeException("Categoria não encontrada");
+        }
+        
+        ImportResultDTO result = new ImportResultDTO();
+        try {
+            importRows(in, format, charset, categories, defaultCategoryId, userId, result);
+        } finally {
+            // Os orçamentos releem o mês uma vez, no fim (mesmo se a leitura parar no meio), e não a cada lote.
+            if (result.getImported() > 0) {
+                budgetService.reload(userId);
+            }
+        }
+        return result;
+    }
+    
+    private void importRows(InputStream in, ImportFormat format, Charset charset, Map<String, Long> categories,
+                            Long defaultCategoryId, Long userId, ImportResultDTO result) throws IOException {
+        List<ImportedExpense> batch = new ArrayList<>(BATCH_SIZE);
+        List<Long> batchCategories = new ArrayList<>(BATCH_SIZE);
+        
+        try (ExpenseFileReader reader = format.open(in, charset)) {
+            ImportedExpense row;
+            while ((row = reader.next()) != null) {
+                String error = row.isValid() ? validate(row) : row.error();
+                Long categoryId = null;
+                if (error == null) {
+                    categoryId = row.category() != null
+                            ? categories.get(row.category().trim().toLowerCase())
+                            : defaultCategoryId;
+                    if (categoryId == null) {
+                        error = row.category() != null
+                                ? "Categoria não encontrada: " + row.category()
+                                : "Categoria não informada";
+                    }
+                }
+                
+                if (error != null) {
+                    reportError(result, row.line(), error);
+                    continue;
+                }
+                
+                batch.add(row);
+                batchCategories.add(categoryId);
+                if (batch.size() == BATCH_SIZE) {
+                    saveBatch(batch, batchCategories, userId, result);
+                }
+            }
+        }
+        if (!batch.isEmpty()) {
+            saveBatch(batch, batchCategories, userId, result);
+        }
+    }
+    
+    private void saveBatch(List<ImportedExpense> batch, List<Long> batchCategories, Long userId, ImportResultDTO result) {
+        save(batch, batchCategories, userId, result, true);
+        batch.clear();
+        batchCategories.clear();
+    }
+    
+    // Um lote recusado pelo banco é dividido ao meio e gravado de novo, até isolar as linhas com
+    // problema: só elas são reportadas, com o erro real, e as demais do lote entram normalmente.
+    private void save(List<ImportedExpense> rows, List<Long> rowCategories, Long userId,
+                      ImportResultDTO result, boolean wholeBatch) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> persistBatch(rows, rowCategories, userId));
+            result.setImported(result.getImported() + rows.size());
+        } catch (RuntimeException e) {
+            if (wholeBatch) {
+                log.warn("Importação do usuário {}: lote das linhas {} a {} recusado, gravando em partes",
+                        userId, rows.get(0).line(), rows.get(rows.size() - 1).line(), e);
+            }
+            if (rows.size() == 1) {
+                String cause = causeOf(e);
+                log.warn("Importação do usuário {}: linha {} recusada: {}", userId, rows.get(0).line(), cause);
+                reportError(result, rows.get(0).line(), "Falha ao gravar: " + cause);
+                return;
+            }
+            int half = rows.size() / 2;
+            save(rows.subList(0, half), rowCategories.subList(0, half), userId, result, false);
+            save(rows.subList(half, rows.size()), rowCategories.subList(half, rows.size()), userId, result, false);
+        }
+    }
+    
+    // Primeira linha da mensagem da causa mais interna, em geral o erro do PostgreSQL.
+    private static String causeOf(RuntimeException e) {
+        String message = NestedExceptionUtils.getMostSpecificCause(e).getMessage();
+        if (message == null) {
+            return e.getClass().getSimpleName();
+        }
+        int lineBreak = message.indexOf('\n');
+        return (lineBreak >= 0 ? message.substring(0, lineBreak) : message).trim();
+    }
+    
+    private void persistBatch(List<ImportedExpense> batch, List<Long> batchCategories, Long userId) {
+        // Referências sem SELECT: usuário e categorias já foram validados.
+        User user = entityManager.getReference(User.class, userId);
+        Map<Long, Category> categoryRefs = new HashMap<>();
+        List<Long> ids = new ArrayList<>(batch.size());
+        Set<LocalDate> dates = new HashSet<>();
+        
+        for (int i = 0; i < batch.size(); i++) {
+            ImportedExpense row = batch.get(i);
+            Long categoryId = batchCategories.get(i);
+            
+            Expense expense = new Expense();
+            expense.setDate(row.date());
+            expense.setDescription(row.description());
+            expense.setCategory(categoryRefs.computeIfAbsent(categoryId,
+                    id -> entityManager.getReference(Category.class, id)));
+            expense.setAmount(row.amount());
+            expense.setPaymentMethod(row.paymentMethod());
+            expense.setBarcode(row.barcode());
+            expense.setRecurring(false);
+            expense.setObservations(row.observations());
+            expense.setUser(user);
+            entityManager.persist(expense);
+            ids.add(expense.getId());
+            dates.add(row.date());
+        }
+        entityManager.flush();
+        entityManager.clear();
+        
+        // Um único upsert agregado no consolidado para o lote inteiro, não um por linha.
+        dailyTotalService.addAll(ids);
+        eventPublisher.publishEvent(new ExpenseChangedEvent(userId, dates));
+    }
+    
+    private String validate(ImportedExpense row) {
+        if (row.description() == null) {
+            return "Descrição é obrigatória";
+        }
+        if (row.description().length() > 255) {
+            return "Descrição maior que 255 caracteres";
+        }
+        if (row.amount().signum() == 0) {
+            return "Valor deve ser maior que zero";
+        }
+        if (row.amount().stripTrailingZeros().scale() > 2 || row.amount().compareTo(MAX_AMOUNT) > 0) {
+            return "Valor inválido: " + row.amount().toPlainString();
+        }
+        if (row.paymentMethod() != null && row.paymentMethod().length() > 50) {
+            return "Forma de pagamento maior que 50 caracteres";
+        }
+        if (row.barcode() != null && row.barcode().length() > 100) {
+            return "Código de barras maior que 100 caracteres";
+        }
+        if (row.observations() != null && row.observations().length() > 500) {
+            return "Observações maiores que 500 caracteres";
+        }
+        return null;
+    }
+    
+    private void reportError(ImportResultDTO result, long line, String message) {
+        result.setFailed(result.getFailed() + 1);
+        if (result.getErrors().size() < MAX_REPORTED_ERRORS) {
+            result.getErrors().add(new ImportResultDTO.RowError(line, message));
+        } else {
+            result.setErrorsTruncated(true);
+        }
+    }
+}
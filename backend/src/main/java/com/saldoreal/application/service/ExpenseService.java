@@ -1,21 +1,33 @@
 package com.saldoreal.application.service;
 
+import com.saldoreal.application.dto.CursorPageDTO;
+import com.saldoreal.application.dto.ExpenseBulkRequestDTO;
+import com.saldoreal.application.dto.ExpenseBulkResultDTO;
 import com.saldoreal.application.dto.ExpenseDTO;
 import com.saldoreal.application.dto.ExpenseFilterDTO;
+import com.saldoreal.application.dto.ExpenseSummaryDTO;
+import com.saldoreal.application.event.ExpenseChangedEvent;
 import com.saldoreal.domain.model.Category;
 import com.saldoreal.domain.model.Expense;
 import com.saldoreal.domain.model.User;
 import com.saldoreal.domain.repository.CategoryRepository;
+import com.saldoreal.domain.repository.ExpenseAggregate;
+import com.saldoreal.domain.repository.ExpenseBulkChange;
+import com.saldoreal.domain.repository.ExpenseBulkResult;
+import com.saldoreal.domain.repository.ExpenseGroupBy;
+import com.saldoreal.domain.repository.ExpenseKeyset;
 import com.saldoreal.domain.repository.ExpenseRepository;
 import com.saldoreal.domain.repository.UserRepository;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
 
 @Service
 public class ExpenseService {
@@ -23,22 +35,29 @@ public class ExpenseService {
     private final ExpenseRepository expenseRepository;
     private final CategoryRepository categoryRepository;
     private final UserRepository userRepository;
+    private final ExpenseDailyTotalService dailyTotalService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final BudgetService budgetService;
     
     public ExpenseService(ExpenseRepository expenseRepository,
                          CategoryRepository categoryRepository,
-                         UserRepository userRepository) {
+                         UserRepository userRepository,
+                         ExpenseDailyTotalService dailyTotalService,
+                         ApplicationEventPublisher eventPublisher,
+                         BudgetService budgetService) {
         this.expenseRepository = expenseRepository;
         this.categoryRepository = categoryRepository;
         this.userRepository = userRepository;
+        this.dailyTotalService = dailyTotalService;
+        this.eventPublisher = eventPublisher;
+        this.budgetService = budgetService;
     }
     
     @Transactional
     public ExpenseDTO create(ExpenseDTO dto, Long userId) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new RuntimeException("Usuário não encontrado"));
-        
-        Category category = categoryRepository.findById(dto.getCategoryId())
-                .orElseThrow(() -> new RuntimeException("Categoria não encontrada"));
+        // O usuário vem do token: basta a referência para a chave estrangeira, sem SELECT.
+        User user = userRepository.getReferenceById(userId);
+        Category category = categoryOf(dto.getCategoryId(), userId);
         
         Expense expense = new Expense();
         expense.setDate(dto.getDate());
@@ -52,20 +71,23 @@ public class ExpenseService {
         expense.setUser(user);
         
         expense = expenseRepository.save(expense);
-        return toDTO(expense);
+        dailyTotalService.add(expense);
+        ExpenseDTO created = toDTO(expense);
+        eventPublisher.publishEvent(new ExpenseChangedEvent(userId, Set.of(expense.getDate()),
+                ExpenseChangedEvent.Action.CREATED, created));
+        
+        // O contador do orçamento só recebe a despesa no commit: aqui ainda vale o consumo anterior.
+        created.setBudgetAlert(budgetService.check(userId, category.getId(), expense.getDate(), expense.getAmount()));
+        return created;
     }
     
     @Transactional
     public ExpenseDTO update(Long id, ExpenseDTO dto, Long userId) {
-        Expense expense = expenseRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Despesa não encontrada"));
+        Expense expense = findOwned(id, userId);
+        Category category = categoryOf(dto.getCategoryId(), userId);
         
-        if (!expense.getUser().getId().equals(userId)) {
-            throw new RuntimeException("Acesso negado");
-        }
-        
-        Category category = categoryRepository.findById(dto.getCategoryId())
-                .orElseThrow(() -> new RuntimeException("Categoria não encontrada"));
+        dailyTotalService.remove(expense);
+        LocalDate previousDate = expense.getDate();
         
         expense.setDate(dto.getDate());
         expense.setDescription(dto.getDescription());
@@ -77,64 +99,184 @@ public class ExpenseService {
         expense.setObservations(dto.getObservations());
         
         expense = expenseRepository.save(expense);
-        return toDTO(expense);
+        dailyTotalService.add(expense);
+        ExpenseDTO updated = toDTO(expense);
+        eventPublisher.publishEvent(new ExpenseChangedEvent(userId, Set.copyOf(List.of(previousDate, expense.getDate())),
+                ExpenseChangedEvent.Action.UPDATED, updated));
+        return updated;
     }
     
     @Transactional
     public void delete(Long id, Long userId) {
-        Expense expense = expenseRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Despesa não encontrada"));
-        
-        if (!expense.getUser().getId().equals(userId)) {
-            throw new RuntimeException("Acesso negado");
+        Expense expense = findOwned(id, userId);
+        dailyTotalService.remove(expense);
+        expenseRepository.delete(expense);
+        eventPublisher.publishEvent(new ExpenseChangedEvent(userId, Set.of(expense.getDate()),
+                ExpenseChangedEvent.Action.DELETED, toDTO(expense)));
+    }
+    
+    @Transactional
+    public ExpenseBulkResultDTO deleteInBulk(ExpenseBulkRequestDTO request, Long userId) {
+        requireSelection(request);
+        ExpenseBulkResult result = expenseRepository.deleteInBulk(userId, request.getFilter(), request.getIds());
+        return published(result, userId);
+    }
+    
+    @Transactional
+    public ExpenseBulkResultDTO updateInBulk(ExpenseBulkRequestDTO request, Long userId) {
+        requireSelection(request);
+        ExpenseBulkChange change = new ExpenseBulkChange(
+            request.getCategoryId(),
+            request.getPaymentMethod(),
+            request.getRecurring()
+        );
+        if (change.isEmpty()) {
+            throw new RuntimeException("Informe ao menos um campo para alterar");
+        }
+        if (change.categoryId() != null && !categoryRepository.existsByIdAndUserId(change.categoryId(), userId)) {
+            throw new RuntimeException("Categoria não encontrada");
         }
         
-        expenseRepository.delete(expense);
+        ExpenseBulkResult result = expenseRepository.updateInBulk(userId, request.getFilter(), request.getIds(), change);
+        return published(result, userId);
     }
     
+    // Sem ids, o filtro precisa de ao menos um critério: um filtro vazio ("filter": {}) selecionaria
+    // todas as despesas do usuário.
+    private static void requireSelection(ExpenseBulkRequestDTO request) {
+        if (request.getIds() == null && !hasCriteria(request.getFilter())) {
+            throw new RuntimeException("Informe ids ou ao menos um critério no filtro");
+        }
+    }
+    
+    private static boolean hasCriteria(ExpenseFilterDTO filter) {
+        return filter != null && (filter.getStartDate() != null
+                || filter.getEndDate() != null
+                || filter.getCategoryId() != null
+                || filter.getMinAmount() != null
+                || filter.getMaxAmount() != null
+                || filter.getPaymentMethod() != null
+                || hasSearch(filter));
+    }
+    
+    // Qualquer linha alterada muda a listagem; dashboard e orçamentos só são relidos quando
+    // algum total diário mudou.
+    private ExpenseBulkResultDTO published(ExpenseBulkResult result, Long userId) {
+        if (result.affected() > 0) {
+            eventPublisher.publishEvent(new ExpenseChangedEvent(userId, result.affectedDates(), result.changedDates()));
+        }
+        if (!result.changedDates().isEmpty()) {
+            budgetService.reload(userId);
+        }
+        return new ExpenseBulkResultDTO(result.affected());
+    }
+    
+    // SQL nativo com só os predicados dos filtros informados: o planejador vê a consulta concreta,
+    // e a busca textual (filter.q) usa o índice da coluna "busca".
     public Page<ExpenseDTO> findAll(ExpenseFilterDTO filter, Long userId) {
-        Sort sort = Sort.by(
-            "desc".equalsIgnoreCase(filter.getSortDir()) 
-                ? Sort.Direction.DESC 
-                : Sort.Direction.ASC,
-            filter.getSortBy()
-        );
+        return expenseRepository.findPage(userId, filter, false);
+    }
+    
+    // Despesas que contêm todas as palavras de filter.q, das mais relevantes para as menos,
+    // combinadas com os demais filtros.
+    public Page<ExpenseDTO> search(ExpenseFilterDTO filter, Long userId) {
+        if (!hasSearch(filter)) {
+            throw new RuntimeException("Informe o termo de busca");
+        }
+        return expenseRepository.findPage(userId, filter, true);
+    }
+    
+    private static boolean hasSearch(ExpenseFilterDTO filter) {
+        return filter.getQ() != null && !filter.getQ().isBlank();
+    }
+    
+    // Paginação por chave: busca size + 1 linhas a partir do cursor, sem OFFSET
+    // e sem o COUNT implícito do Page (só calculado quando withCount=true).
+    public CursorPageDTO<ExpenseDTO> findAllByCursor(ExpenseFilterDTO filter, Long userId) {
+        String sortBy = filter.getSortBy() != null ? filter.getSortBy() : "date";
+        boolean ascending = !"desc".equalsIgnoreCase(filter.getSortDir());
+        int size = Math.max(filter.getSize(), 1);
         
-        Pageable pageable = PageRequest.of(filter.getPage(), filter.getSize(), sort);
+        ExpenseKeyset keyset = ExpenseCursor.decode(filter.getCursor(), sortBy, ascending);
+        List<ExpenseDTO> rows = expenseRepository.findByKeyset(userId, filter, keyset, size + 1);
         
-        Page<Expense> expenses = expenseRepository.findWithFilters(
-            userId,
-            filter.getStartDate(),
-            filter.getEndDate(),
-            filter.getCategoryId(),
-            filter.getMinAmount(),
-            filter.getMaxAmount(),
-            filter.getPaymentMethod(),
-            pageable
-        );
+        boolean hasMore = rows.size() > size;
+        if (hasMore) {
+            rows = keyset.backward() ? rows.subList(1, rows.size()) : rows.subList(0, size);
+        }
+        
+        // Indo para frente, há próxima página se sobrou linha; voltando, sempre há.
+        boolean hasNext = keyset.backward() || hasMore;
+        boolean hasPrev = keyset.backward() ? hasMore : !keyset.isFirstPage();
         
-        return expenses.map(this::toDTO);
+        CursorPageDTO<ExpenseDTO> page = new CursorPageDTO<>();
+        page.setContent(rows);
+        page.setSize(size);
+        if (!rows.isEmpty()) {
+            page.setNextCursor(hasNext ? ExpenseCursor.next(sortBy, ascending, rows.get(rows.size() - 1)) : null);
+            page.setPrevCursor(hasPrev ? ExpenseCursor.prev(sortBy, ascending, rows.get(0)) : null);
+        }
+        if (filter.isWithCount()) {
+            page.setTotalElements(expenseRepository.countWithFilters(userId, filter));
+        }
+        return page;
     }
     
     public ExpenseDTO findById(Long id, Long userId) {
-        Expense expense = expenseRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Despesa não encontrada"));
+        return toDTO(findOwned(id, userId));
+    }
+    
+    public BigDecimal getTotal(ExpenseFilterDTO filter, Long userId) {
+        return summarize(filter, null, userId).getTotal();
+    }
+    
+    public ExpenseSummaryDTO summarize(ExpenseFilterDTO filter, ExpenseGroupBy groupBy, Long userId) {
+        return summarize(groupBy, expenseRepository.aggregate(userId, filter, groupBy));
+    }
+    
+    static ExpenseSummaryDTO summarize(ExpenseGroupBy groupBy, List<ExpenseAggregate> rows) {
+        ExpenseSummaryDTO summary = new ExpenseSummaryDTO();
+        summary.setGroupBy(groupBy != null ? groupBy.name() : null);
+        summary.setTotal(BigDecimal.ZERO);
         
-        if (!expense.getUser().getId().equals(userId)) {
-            throw new RuntimeException("Acesso negado");
+        List<ExpenseSummaryDTO.Group> groups = new ArrayList<>();
+        for (ExpenseAggregate row : rows) {
+            if (row.grandTotal()) {
+                summary.setCount(row.count());
+                summary.setTotal(row.total());
+                summary.setAverage(row.average());
+                summary.setMin(row.min());
+                summary.setMax(row.max());
+            } else {
+                groups.add(new ExpenseSummaryDTO.Group(
+                    row.key(),
+                    row.label(),
+                    row.count(),
+                    row.total(),
+                    row.average(),
+                    row.min(),
+                    row.max()
+                ));
+            }
         }
-        
-        return toDTO(expense);
+        summary.setGroups(groupBy != null ? groups : null);
+        return summary;
     }
     
-    public BigDecimal getTotal(ExpenseFilterDTO filter, Long userId) {
-        Page<ExpenseDTO> expenses = findAll(filter, userId);
-        return expenses.getContent().stream()
-                .map(ExpenseDTO::getAmount)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+    private Expense findOwned(Long id, Long userId) {
+        return expenseRepository.findByIdAndUserId(id, userId)
+                .orElseThrow(() -> new RuntimeException("Despesa não encontrada"));
+    }
+    
+    // Só confere se a categoria é do usuário; a despesa precisa apenas da referência.
+    private Category categoryOf(Long categoryId, Long userId) {
+        if (!categoryRepository.existsByIdAndUserId(categoryId, userId)) {
+            throw new RuntimeException("Categoria não encontrada");
+        }
+        return categoryRepository.getReferenceById(categoryId);
     }
     
-    private ExpenseDTO toDTO(Expense expense) {
+    public static ExpenseDTO toDTO(Expense expense) {
         ExpenseDTO dto = new ExpenseDTO();
         dto.setId(expense.getId());
         dto.setDate(expense.getDate());
@@ -1,6 +1,10 @@
 package com.saldoreal.application.service;
 
 import com.saldoreal.application.dto.FinancialProjectionDTO;
+import com.saldoreal.application.dto.ProjectionBatchResultDTO;
+import com.saldoreal.application.dto.ProjectionGridDTO;
+import com.saldoreal.application.dto.ProjectionGridRequestDTO;
+import com.saldoreal.application.dto.ProjectionSolveRequestDTO;
 import com.saldoreal.domain.model.FinancialProjection;
 import com.saldoreal.domain.model.User;
 import com.saldoreal.domain.repository.FinancialProjectionRepository;
@@ -9,26 +13,35 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
-import java.math.RoundingMode;
+import java.util.Arrays;
 import java.util.List;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 @Service
 public class FinancialProjectionService {
     
+    public static final int MAX_GRID_AXIS = 1000;
+    public static final int MAX_GRID_CELLS = 100_000;
+    
     private final FinancialProjectionRepository projectionRepository;
     private final UserRepository userRepository;
+    private final ProjectionEngine projectionEngine;
+    private final ProjectionExecutor projectionExecutor;
     
     public FinancialProjectionService(FinancialProjectionRepository projectionRepository,
-                                     UserRepository userRepository) {
+                                     UserRepository userRepository,
+                                     ProjectionEngine projectionEngine,
+                                     ProjectionExecutor projectionExecutor) {
         this.projectionRepository = projectionRepository;
         this.userRepository = userRepository;
+        this.projectionEngine = projectionEngine;
+        this.projectionExecutor = projectionExecutor;
     }
     
     @Transactional
     public FinancialProjectionDTO create(FinancialProjectionDTO dto, Long userId) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new RuntimeException("Usuário não encontrado"));
+        User user = userRepository.getReferenceById(userId);
         
         BigDecimal futureValue = calculateFutureValue(
             dto.getInitialValue(),
@@ -56,42 +69,185 @@ public class FinancialProjectionService {
     }
     
     public FinancialProjectionDTO findById(Long id, Long userId) {
-        FinancialProjection projection = projectionRepository.findById(id)
+        FinancialProjection projection = projectionRepository.findByIdAndUserId(id, userId)
                 .orElseThrow(() -> new RuntimeException("Projeção não encontrada"));
-        
-        if (!projection.getUser().getId().equals(userId)) {
-            throw new RuntimeException("Acesso negado");
-        }
-        
         return toDTO(projection);
     }
     
     @Transactional
     public void delete(Long id, Long userId) {
-        FinancialProjection projection = projectionRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Projeção não encontrada"));
-        
-        if (!projection.getUser().getId().equals(userId)) {
-            throw new RuntimeException("Acesso negado");
+        if (projectionRepository.deleteByIdAndUserId(id, userId) == 0) {
+            throw new RuntimeException("Projeção não encontrada");
         }
-        
-        projectionRepository.delete(projection);
     }
     
     public BigDecimal calculateFutureValue(BigDecimal initialValue, 
                                           BigDecimal monthlyContribution,
                                           BigDecimal interestRate,
                                           Integer period) {
-        BigDecimal monthlyRate = interestRate.divide(new BigDecimal("100"), 6, RoundingMode.HALF_UP)
-                .divide(new BigDecimal("12"), 6, RoundingMode.HALF_UP);
+        return projectionEngine.futureValue(initialValue, monthlyContribution, interestRate, period);
+    }
+    
+    public FinancialProjectionDTO calculate(FinancialProjectionDTO dto, boolean withSchedule) {
+        FinancialProjectionDTO result = new FinancialProjectionDTO();
+        result.setInitialValue(dto.getInitialValue());
+        result.setMonthlyContribution(dto.getMonthlyContribution());
+        result.setInterestRate(dto.getInterestRate());
+        result.setPeriod(dto.getPeriod());
+        result.setFutureValue(calculateFutureValue(
+            dto.getInitialValue(),
+            dto.getMonthlyContribution(),
+            dto.getInterestRate(),
+            dto.getPeriod()
+        ));
+        if (withSchedule) {
+            result.setSchedule(ProjectionEngine.schedule(
+                dto.getInitialValue(),
+                dto.getMonthlyContribution(),
+                dto.getInterestRate(),
+                dto.getPeriod()
+            ));
+        }
+        return result;
+    }
+    
+    // Resolve a incógnita pedida e devolve a projeção completa, com o valor futuro que ela de fato atinge.
+    public FinancialProjectionDTO solve(ProjectionSolveRequestDTO request) {
+        ProjectionSolveRequestDTO.Unknown unknown = request.getSolveFor();
+        BigDecimal target = request.getTargetValue();
+        BigDecimal initialValue = request.getInitialValue();
+        BigDecimal monthlyContribution = request.getMonthlyContribution();
+        BigDecimal interestRate = request.getInterestRate();
+        Integer period = request.getPeriod();
+        
+        switch (unknown) {
+            case MONTHLY_CONTRIBUTION -> {
+                require(interestRate, "Taxa de juros é obrigatória");
+                require(period, "Período é obrigatório");
+                monthlyContribution = ProjectionEngine.solveContribution(target, initialValue, interestRate, period);
+            }
+            case PERIOD -> {
+                require(monthlyContribution, "Aporte mensal é obrigatório");
+                require(interestRate, "Taxa de juros é obrigatória");
+                period = ProjectionEngine.solvePeriod(target, initialValue, monthlyContribution, interestRate);
+            }
+            case INTEREST_RATE -> {
+                require(monthlyContribution, "Aporte mensal é obrigatório");
+                require(period, "Período é obrigatório");
+                interestRate = ProjectionEngine.solveRate(target, initialValue, monthlyContribution, period);
+            }
+        }
+        
+        FinancialProjectionDTO result = new FinancialProjectionDTO();
+        result.setInitialValue(initialValue);
+        result.setMonthlyContribution(monthlyContribution);
+        result.setInterestRate(interestRate);
+        result.setPeriod(period);
+        result.setFutureValue(ProjectionEngine.computeFutureValue(initialValue, monthlyContribution, interestRate, period));
+        return result;
+    }
+    
+    private static void require(Object value, String message) {
+        if (value == null) {
+            throw new RuntimeException(message);
+        }
+    }
+    
+    // Cenários independentes, calculados em paralelo no pool de projeções pelo mesmo caminho
+    // memoizado do /calculate.
+    public ProjectionBatchResultDTO calculateBatch(List<FinancialProjectionDTO> scenarios) {
+        BigDecimal[] futureValues = new BigDecimal[scenarios.size()];
+        projectionExecutor.execute(() -> {
+            IntStream.range(0, futureValues.length).parallel().forEach(i -> {
+                FinancialProjectionDTO scenario = scenarios.get(i);
+                futureValues[i] = calculateFutureValue(
+                    scenario.getInitialValue(),
+                    scenario.getMonthlyContribution(),
+                    scenario.getInterestRate(),
+                    scenario.getPeriod()
+                );
+            });
+        });
+        return new ProjectionBatchResultDTO(Arrays.asList(futureValues));
+    }
+    
+    // Os fatores de crescimento saem uma vez por par taxa × prazo e valem para todos os aportes.
+    // Fica fora do cache do /calculate, que uma grade grande esvaziaria, e roda no pool de projeções.
+    public ProjectionGridDTO calculateGrid(ProjectionGridRequestDTO request) {
+        BigDecimal[] rates = expand(request.getInterestRate());
+        int[] periods = expand(request.getPeriod());
+        BigDecimal[] contributions = expand(request.getMonthlyContribution());
+        if ((long) rates.length * periods.length * contributions.length > MAX_GRID_CELLS) {
+            throw new RuntimeException("Grade limitada a " + MAX_GRID_CELLS + " combinações");
+        }
         
-        BigDecimal futureValue = initialValue;
-        for (int i = 0; i < period; i++) {
-            futureValue = futureValue.multiply(BigDecimal.ONE.add(monthlyRate))
-                    .add(monthlyContribution);
+        BigDecimal initialValue = request.getInitialValue();
+        double[][][] futureValues = new double[rates.length][periods.length][];
+        projectionExecutor.execute(() -> {
+            IntStream.range(0, rates.length * periods.length).parallel().forEach(cell -> {
+                int i = cell / periods.length;
+                int j = cell % periods.length;
+                ProjectionEngine.Factors factors = ProjectionEngine.factors(rates[i], periods[j]);
+                double[] row = new double[contributions.length];
+                for (int k = 0; k < contributions.length; k++) {
+                    row[k] = factors.futureValue(initialValue, contributions[k]).doubleValue();
+                }
+                futureValues[i][j] = row;
+            });
+        });
+        return new ProjectionGridDTO(rates, periods, contributions, futureValues);
+    }
+    
+    private static BigDecimal[] expand(ProjectionGridRequestDTO.DecimalRange range) {
+        BigDecimal from = range.getFrom();
+        BigDecimal to = range.getTo() != null ? range.getTo() : from;
+        checkBounds(to.compareTo(from), range.getStep() != null);
+        if (to.compareTo(from) == 0) {
+            return new BigDecimal[] {from};
         }
         
-        return futureValue.setScale(2, RoundingMode.HALF_UP);
+        long count = to.subtract(from).divideToIntegralValue(range.getStep()).longValueExact() + 1;
+        checkAxis(count);
+        BigDecimal[] values = new BigDecimal[(int) count];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = from.add(range.getStep().multiply(BigDecimal.valueOf(i)));
+        }
+        return values;
+    }
+    
+    private static int[] expand(ProjectionGridRequestDTO.PeriodRange range) {
+        int from = range.getFrom();
+        int to = range.getTo() != null ? range.getTo() : from;
+        checkBounds(Integer.compare(to, from), range.getStep() != null);
+        if (to == from) {
+            return new int[] {from};
+        }
+        
+        int step = range.getStep();
+        long count = (to - from) / step + 1;
+        checkAxis(count);
+        int[] values = new int[(int) count];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = from + i * step;
+        }
+        return values;
+    }
+    
+    // Mesma regra nos dois tipos de eixo: sem passo, a faixa é um único valor e o fim, se vier,
+    // tem de ser igual ao início.
+    private static void checkBounds(int toComparedToFrom, boolean hasStep) {
+        if (toComparedToFrom < 0) {
+            throw new RuntimeException("Fim da faixa deve ser maior ou igual ao início");
+        }
+        if (toComparedToFrom > 0 && !hasStep) {
+            throw new RuntimeException("Informe o passo da faixa quando o fim for diferente do início");
+        }
+    }
+    
+    private static void checkAxis(long count) {
+        if (count > MAX_GRID_AXIS) {
+            throw new RuntimeException("Cada faixa da grade pode ter no máximo " + MAX_GRID_AXIS + " valores");
+        }
     }
     
     private FinancialProjectionDTO toDTO(FinancialProjection projection) {
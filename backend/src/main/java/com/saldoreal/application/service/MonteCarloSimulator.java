@@ -0,0 +1,156 @@
+package com.saldoreal.application.service;
+
+import com.saldoreal.application.dto.SimulationRequestDTO;
+import com.saldoreal.application.dto.SimulationResultDTO;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.IntStream;
+
+@Service
+public class MonteCarloSimulator {
+    
+    // Trajetórias por bloco: cada bloco tem o próprio gerador, então o resultado
+    // com uma semente fixa não depende de quantas threads participaram.
+    private static final int CHUNK_SIZE = 4096;
+    
+    private final ProjectionExecutor executor;
+    
+    public MonteCarloSimulator(ProjectionExecutor executor) {
+        this.executor = executor;
+    }
+    
+    // Sem vaga no pool de projeções, lança RejectedExecutionException (429).
+    public SimulationResultDTO simulate(SimulationRequestDTO request) {
+        return executor.run(() -> run(request));
+    }
+    
+    // Retorno mensal log-normal: ln(1 + g) ~ N(ln(1 + retorno) / 12 - σ²/2, σ² ), com σ = volatilidade / √12.
+    // O estado é um double[] com o saldo de todas as trajetórias, avançado mês a mês;
+    // ao fim de cada mês os percentis saem por seleção parcial, sem ordenar, numa tarefa à parte
+    // que roda enquanto o mês seguinte é simulado. Duas cópias do saldo se alternam entre os meses.
+    private SimulationResultDTO run(SimulationRequestDTO request) {
+        int paths = request.getPaths() != null ? request.getPaths() : 10000;
+        int period = request.getPeriod();
+        long seed = request.getSeed() != null ? request.getSeed() : ThreadLocalRandom.current().nextLong();
+        
+        double sigma = request.getVolatility().doubleValue() / 100 / Math.sqrt(12);
+        double drift = Math.log1p(request.getExpectedReturn().doubleValue() / 100) / 12 - sigma * sigma / 2;
+        double contribution = request.getMonthlyContribution().doubleValue();
+        BigDecimal contributionVolatility = request.getContributionVolatility() != null
+                ? request.getContributionVolatility() : BigDecimal.ZERO;
+        double contributionSigma = contribution * contributionVolatility.doubleValue() / 100;
+        
+        double[] balance = new double[paths];
+        Arrays.fill(balance, request.getInitialValue().doubleValue());
+        
+        int chunks = (paths + CHUNK_SIZE - 1) / CHUNK_SIZE;
+        SplittableRandom root = new SplittableRandom(seed);
+        SplittableRandom[] randoms = new SplittableRandom[chunks];
+        for (int c = 0; c < chunks; c++) {
+            randoms[c] = root.split();
+        }
+        
+        int k5 = rank(0.05, paths);
+        int k50 = rank(0.50, paths);
+        int k95 = rank(0.95, paths);
+        double[] p5 = new double[period];
+        double[] p50 = new double[period];
+        double[] p95 = new double[period];
+        double[][] scratch = new double[2][paths];
+        ForkJoinTask<?>[] pending = new ForkJoinTask<?>[2];
+        
+        for (int month = 0; month < period; month++) {
+            IntStream.range(0, chunks).parallel().forEach(c -> {
+                SplittableRandom random = randoms[c];
+                int end = Math.min(paths, (c + 1) * CHUNK_SIZE);
+                for (int i = c * CHUNK_SIZE; i < end; i++) {
+                    double deposit = contributionSigma > 0
+                            ? Math.max(0, contribution + contributionSigma * random.nextGaussian())
+                            : contribution;
+                    balance[i] = balance[i] * Math.exp(drift + sigma * random.nextGaussian()) + deposit;
+                }
+            });
+            
+            int slot = month & 1;
+            if (pending[slot] != null) {
+                pending[slot].join();
+            }
+            double[] values = scratch[slot];
+            System.arraycopy(balance, 0, values, 0, paths);
+            int current = month;
+            pending[slot] = ForkJoinTask.adapt(() -> {
+                p50[current] = cents(select(values, 0, paths - 1, k50));
+                // Depois da seleção da mediana, cada percentil está só de um lado dela:
+                // as duas seleções mexem em trechos disjuntos e rodam ao mesmo tempo.
+                ForkJoinTask.invokeAll(
+                        ForkJoinTask.adapt(() -> {
+                            p5[current] = cents(k5 < k50 ? select(values, 0, k50 - 1, k5) : values[k50]);
+                        }),
+                        ForkJoinTask.adapt(() -> {
+                            p95[current] = cents(k95 > k50 ? select(values, k50 + 1, paths - 1, k95) : values[k50]);
+                        }));
+            }).fork();
+        }
+        for (ForkJoinTask<?> task : pending) {
+            if (task != null) {
+                task.join();
+            }
+        }
+        
+        Double targetProbability = null;
+        if (request.getTarget() != null) {
+            double target = request.getTarget().doubleValue();
+            long reached = Arrays.stream(balance).parallel().filter(value -> value >= target).count();
+            targetProbability = (double) reached / paths;
+        }
+        
+        return new SimulationResultDTO(paths, period, seed, p5, p50, p95, targetProbability);
+    }
+    
+    private static int rank(double percentile, int size) {
+        return (int) Math.round(percentile * (size - 1));
+    }
+    
+    // Quickselect: deixa em values[k] o valor que estaria ali com o trecho ordenado,
+    // com os menores à esquerda e os maiores à direita.
+    static double select(double[] values, int left, int right, int k) {
+        while (left < right) {
+            int middle = (left + right) >>> 1;
+            double pivot = median(values[left], values[middle], values[right]);
+            int i = left;
+            int j = right;
+            while (i <= j) {
+                while (values[i] < pivot) i++;
+                while (values[j] > pivot) j--;
+                if (i <= j) {
+                    double tmp = values[i];
+                    values[i] = values[j];
+                    values[j] = tmp;
+                    i++;
+                    j--;
+                }
+            }
+            if (k <= j) {
+                right = j;
+            } else if (k >= i) {
+                left = i;
+            } else {
+                break;
+            }
+        }
+        return values[k];
+    }
+    
+    private static double median(double a, double b, double c) {
+        return Math.max(Math.min(a, b), Math.min(Math.max(a, b), c));
+    }
+    
+    private static double cents(double value) {
+        return Math.round(value * 100) / 100.0;
+    }
+}
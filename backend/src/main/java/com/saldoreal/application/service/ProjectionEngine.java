@@ -0,0 +1,260 @@
+package com.saldoreal.application.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.saldoreal.application.dto.ProjectionScheduleDTO;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.math.RoundingMode;
+
+@Service
+public class ProjectionEngine {
+    
+    // Precisão de todo o cálculo em forma fechada (34 dígitos significativos). Os fatores de
+    // crescimento ganham ainda um dígito para cada casa inteira de (1 + r)^n.
+    public static final MathContext MATH_CONTEXT = MathContext.DECIMAL128;
+    
+    public static final int MAX_SCHEDULE_MONTHS = 1200;
+    
+    // Limites da busca de meta: prazo em meses e taxa anual em %.
+    public static final int MAX_SOLVE_PERIOD = 1200;
+    public static final double MAX_SOLVE_RATE = 1000;
+    
+    private static final int MAX_RATE_ITERATIONS = 200;
+    
+    // Teto dos dígitos extras dos fatores. Nos limites da API (1200 meses a 1000% ao ano) o
+    // crescimento tem ~317 casas inteiras; acima do teto o resultado só perde os centavos.
+    private static final int MAX_GROWTH_DIGITS = 400;
+    
+    private static final BigDecimal HUNDRED = new BigDecimal("100");
+    private static final BigDecimal TWELVE = new BigDecimal("12");
+    
+    private final Cache<ProjectionKey, BigDecimal> futureValues;
+    
+    public ProjectionEngine(@Value("${projections.cache.max-size:10000}") long maxSize) {
+        this.futureValues = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .build();
+    }
+    
+    // Memoizado: entradas equivalentes (10 e 10.00, por exemplo) caem na mesma chave.
+    public BigDecimal futureValue(BigDecimal initialValue,
+                                  BigDecimal monthlyContribution,
+                                  BigDecimal interestRate,
+                                  int period) {
+        ProjectionKey key = new ProjectionKey(
+            initialValue.stripTrailingZeros(),
+            monthlyContribution.stripTrailingZeros(),
+            interestRate.stripTrailingZeros(),
+            period
+        );
+        return futureValues.get(key, k -> computeFutureValue(k.initialValue(), k.monthlyContribution(),
+                k.interestRate(), k.period()));
+    }
+    
+    // FV = P(1 + r)^n + C((1 + r)^n - 1) / r, com r = taxa anual / 100 / 12 arredondada
+    // a 6 casas como no cálculo mês a mês original. (1 + r)^n sai por quadrados sucessivos, com
+    // ~log n multiplicações, mas na precisão de factorsContext, que cresce com n * log(1 + r).
+    public static BigDecimal computeFutureValue(BigDecimal initialValue,
+                                                BigDecimal monthlyContribution,
+                                                BigDecimal interestRate,
+                                                int period) {
+        return factors(interestRate, period).futureValue(initialValue, monthlyContribution);
+    }
+    
+    // (1 + r)^n e ((1 + r)^n - 1) / r dependem só de taxa e prazo: calculados uma vez,
+    // servem para qualquer valor inicial e aporte.
+    public static Factors factors(BigDecimal interestRate, int period) {
+        BigDecimal monthlyRate = monthlyRate(interestRate);
+        if (monthlyRate.signum() == 0) {
+            return new Factors(BigDecimal.ONE, BigDecimal.valueOf(period));
+        }
+        MathContext context = factorsContext(monthlyRate, period);
+        BigDecimal growth = BigDecimal.ONE.add(monthlyRate).pow(period, context);
+        BigDecimal annuity = growth.subtract(BigDecimal.ONE).divide(monthlyRate, context);
+        return new Factors(growth, annuity);
+    }
+    
+    // Com 34 dígitos fixos, um valor futuro acima de ~10^32 (taxas altas em prazos longos) perderia
+    // os centavos; com um dígito a mais por casa inteira do crescimento, o erro relativo cai na
+    // mesma proporção que o valor sobe, até MAX_GROWTH_DIGITS.
+    private static MathContext factorsContext(BigDecimal monthlyRate, int period) {
+        double growthDigits = Math.ceil(period * Math.log10(1 + monthlyRate.doubleValue()));
+        int extraDigits = (int) Math.max(0, Math.min(MAX_GROWTH_DIGITS, growthDigits));
+        return new MathContext(MATH_CONTEXT.getPrecision() + extraDigits, MATH_CONTEXT.getRoundingMode());
+    }
+    
+    // Cronograma em double, só para exibição: três arrays, sem objeto por mês.
+    public static ProjectionScheduleDTO schedule(BigDecimal initialValue,
+                                                 BigDecimal monthlyContribution,
+                                                 BigDecimal interestRate,
+                                                 int period) {
+        if (period > MAX_SCHEDULE_MONTHS) {
+            throw new RuntimeException("Cronograma limitado a " + MAX_SCHEDULE_MONTHS + " meses");
+        }
+        
+        double rate = monthlyRate(interestRate).doubleValue();
+        double contribution = monthlyContribution.doubleValue();
+        double balance = initialValue.doubleValue();
+        double contributed = balance;
+        double interestEarned = 0;
+        
+        double[] balances = new double[period];
+        double[] contributions = new double[period];
+        double[] interest = new double[period];
+        for (int i = 0; i < period; i++) {
+            double monthInterest = balance * rate;
+            interestEarned += monthInterest;
+            contributed += contribution;
+            balance += monthInterest + contribution;
+            
+            balances[i] = cents(balance);
+            contributions[i] = cents(contributed);
+            interest[i] = cents(interestEarned);
+        }
+        return new ProjectionScheduleDTO(balances, contributions, interest);
+    }
+    
+    // Menor aporte, em centavos arredondados para cima, com valor futuro >= meta:
+    // C = (meta - P(1 + r)^n) / (((1 + r)^n - 1) / r). Zero se o valor inicial já basta.
+    public static BigDecimal solveContribution(BigDecimal target,
+                                               BigDecimal initialValue,
+                                               BigDecimal interestRate,
+                                               int period) {
+        Factors factors = factors(interestRate, period);
+        BigDecimal missing = target.subtract(initialValue.multiply(factors.growth(), MATH_CONTEXT));
+        if (missing.signum() <= 0) {
+            return BigDecimal.ZERO.setScale(2);
+        }
+        return missing.divide(factors.annuity(), MATH_CONTEXT).setScale(2, RoundingMode.CEILING);
+    }
+    
+    // Menor prazo com valor futuro >= meta. A estimativa vem da inversão em forma fechada,
+    // n = ln((meta + C/r) / (P + C/r)) / ln(1 + r), e é ajustada conferindo o valor exato vizinho.
+    public static int solvePeriod(BigDecimal target,
+                                  BigDecimal initialValue,
+                                  BigDecimal monthlyContribution,
+                                  BigDecimal interestRate) {
+        double rate = monthlyRate(interestRate).doubleValue();
+        double t = target.doubleValue();
+        double p = initialValue.doubleValue();
+        double c = monthlyContribution.doubleValue();
+        if (c <= 0 && (p <= 0 || rate == 0)) {
+            throw new RuntimeException("Meta inatingível sem aportes ou rendimento");
+        }
+        
+        double estimate = rate == 0
+                ? (t - p) / c
+                : Math.log((t + c / rate) / (p + c / rate)) / Math.log1p(rate);
+        int period = (int) Math.max(1, Math.min(MAX_SOLVE_PERIOD, Math.ceil(estimate)));
+        
+        while (period > 1 && reaches(target, initialValue, monthlyContribution, interestRate, period - 1)) {
+            period--;
+        }
+        while (!reaches(target, initialValue, monthlyContribution, interestRate, period)) {
+            if (period == MAX_SOLVE_PERIOD) {
+                throw new RuntimeException("Meta não é atingida em " + MAX_SOLVE_PERIOD + " meses");
+            }
+            period++;
+        }
+        return period;
+    }
+    
+    private static boolean reaches(BigDecimal target,
+                                   BigDecimal initialValue,
+                                   BigDecimal monthlyContribution,
+                                   BigDecimal interestRate,
+                                   int period) {
+        return computeFutureValue(initialValue, monthlyContribution, interestRate, period).compareTo(target) >= 0;
+    }
+    
+    // Taxa anual (%) que leva à meta. O valor futuro cresce com a taxa, então a raiz fica presa
+    // no intervalo [0, MAX_SOLVE_RATE]; Newton acelera e, se sair do intervalo ou não reduzir
+    // o intervalo pela metade, o passo vira bisseção. Converge sempre, em no máximo ~60 passos.
+    public static BigDecimal solveRate(BigDecimal target,
+                                       BigDecimal initialValue,
+                                       BigDecimal monthlyContribution,
+                                       int period) {
+        double t = target.doubleValue();
+        double p = initialValue.doubleValue();
+        double c = monthlyContribution.doubleValue();
+        if (p + c * period >= t) {
+            return BigDecimal.ZERO;
+        }
+        if (p <= 0 && period == 1) {
+            throw new RuntimeException("Meta inatingível em um mês sem valor inicial");
+        }
+        
+        double low = 0;
+        double high = MAX_SOLVE_RATE / 1200;
+        if (futureValue(p, c, high, period) < t) {
+            throw new RuntimeException("Meta exige taxa acima de " + (int) MAX_SOLVE_RATE + "% ao ano");
+        }
+        
+        double rate = high / 2;
+        double previousWidth = high - low;
+        for (int i = 0; i < MAX_RATE_ITERATIONS && high - low > 1e-15; i++) {
+            double error = futureValue(p, c, rate, period) - t;
+            if (error == 0) {
+                break;
+            }
+            if (error < 0) {
+                low = rate;
+            } else {
+                high = rate;
+            }
+            
+            double next = rate - error / derivative(p, c, rate, period);
+            double width = high - low;
+            if (!(next > low && next < high) || width > previousWidth / 2) {
+                next = (low + high) / 2;
+            }
+            previousWidth = width;
+            rate = next;
+        }
+        return BigDecimal.valueOf(rate * 1200).setScale(4, RoundingMode.HALF_UP);
+    }
+    
+    private static double futureValue(double p, double c, double rate, int period) {
+        if (rate == 0) {
+            return p + c * period;
+        }
+        double growth = Math.pow(1 + rate, period);
+        return p * growth + c * (growth - 1) / rate;
+    }
+    
+    // d/dr [P(1 + r)^n + C((1 + r)^n - 1) / r]
+    private static double derivative(double p, double c, double rate, int period) {
+        double growth = Math.pow(1 + rate, period);
+        double growthDerivative = period * growth / (1 + rate);
+        return p * growthDerivative + c * (growthDerivative * rate - (growth - 1)) / (rate * rate);
+    }
+    
+    private static double cents(double value) {
+        return Math.round(value * 100) / 100.0;
+    }
+    
+    public static BigDecimal monthlyRate(BigDecimal interestRate) {
+        return interestRate.divide(HUNDRED, 6, RoundingMode.HALF_UP)
+                .divide(TWELVE, 6, RoundingMode.HALF_UP);
+    }
+    
+    private record ProjectionKey(BigDecimal initialValue,
+                                 BigDecimal monthlyContribution,
+                                 BigDecimal interestRate,
+                                 int period) {
+    }
+    
+    public record Factors(BigDecimal growth, BigDecimal annuity) {
+        
+        public BigDecimal futureValue(BigDecimal initialValue, BigDecimal monthlyContribution) {
+            // Produtos exatos: os fatores já trazem toda a precisão que o resultado pede.
+            return initialValue.multiply(growth)
+                    .add(monthlyContribution.multiply(annuity))
+                    .setScale(2, RoundingMode.HALF_UP);
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.saldoreal.application.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.function.Supplier;
+
+// Simulações, lotes e grades de projeção rodam num ForkJoinPool próprio, não no pool comum da JVM:
+// streams paralelos iniciados dentro de uma tarefa dele usam as threads dele. Só alguns cálculos
+// entram ao mesmo tempo; o excesso é recusado na hora (429) em vez de disputar a CPU com o resto.
+@Component
+public class ProjectionExecutor {
+    
+    private final ForkJoinPool pool;
+    private final Semaphore permits;
+    private final int maxConcurrent;
+    
+    private final Counter rejectedCounter;
+    
+    public ProjectionExecutor(MeterRegistry registry,
+                              @Value("${projections.compute.threads:0}") int threads,
+                              @Value("${projections.compute.max-concurrent:4}") int maxConcurrent) {
+        int threadCount = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        this.pool = new ForkJoinPool(threadCount, pool -> {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+            thread.setName("projecoes-" + thread.getPoolIndex());
+            thread.setDaemon(true);
+            return thread;
+        }, null, false);
+        this.maxConcurrent = maxConcurrent;
+        this.permits = new Semaphore(maxConcurrent);
+        
+        this.rejectedCounter = Counter.builder("saldoreal.projections.rejected")
+                .description("Cálculos de projeção recusados com o limite de concorrência atingido")
+                .register(registry);
+        Gauge.builder("saldoreal.projections.active", permits, semaphore -> maxConcurrent - semaphore.availablePermits())
+                .description("Cálculos de projeção em andamento")
+                .register(registry);
+        Gauge.builder("saldoreal.projections.threads", pool, ForkJoinPool::getActiveThreadCount)
+                .description("Threads do pool de projeções ocupadas")
+                .register(registry);
+    }
+    
+    // Roda o cálculo no pool e espera o resultado; sem vaga, lança RejectedExecutionException.
+    // Um erro do cálculo chega a quem chamou como foi lançado, com a mesma mensagem.
+    public <T> T run(Supplier<T> task) {
+        if (!permits.tryAcquire()) {
+            rejectedCounter.increment();
+            throw new RejectedExecutionException("Limite de " + maxConcurrent + " cálculos simultâneos atingido");
+        }
+        try {
+            return CompletableFuture.supplyAsync(task, pool).get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Cálculo de projeção interrompido", e);
+        } finally {
+            permits.release();
+        }
+    }
+    
+    public void execute(Runnable task) {
+        run(() -> {
+            task.run();
+            return null;
+        });
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdownNow();
+    }
+}
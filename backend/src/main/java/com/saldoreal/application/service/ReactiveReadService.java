@@ -0,0 +1,55 @@
+package com.saldoreal.application.service;
+
+import com.saldoreal.application.dto.CategoryDTO;
+import com.saldoreal.application.dto.DashboardDTO;
+import com.saldoreal.application.dto.ExpenseDTO;
+import com.saldoreal.application.dto.ExpenseFilterDTO;
+import com.saldoreal.application.dto.ExpenseSummaryDTO;
+import com.saldoreal.domain.repository.ExpenseGroupBy;
+import com.saldoreal.domain.repository.ReactiveReadRepository;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+
+// Versões sem bloqueio das leituras mais frequentes. Só consultam; as escritas continuam nos
+// serviços JPA, e os eventos de alteração invalidam o mesmo cache do dashboard.
+@Service
+@ConditionalOnProperty(name = "reactive.enabled", havingValue = "true")
+public class ReactiveReadService {
+    
+    private final ReactiveReadRepository repository;
+    private final DashboardService dashboardService;
+    
+    public ReactiveReadService(ReactiveReadRepository repository, DashboardService dashboardService) {
+        this.repository = repository;
+        this.dashboardService = dashboardService;
+    }
+    
+    public Flux<ExpenseDTO> findAll(ExpenseFilterDTO filter, Long userId) {
+        return repository.findPage(userId, filter);
+    }
+    
+    public Mono<ExpenseSummaryDTO> summarize(ExpenseFilterDTO filter, ExpenseGroupBy groupBy, Long userId) {
+        return repository.aggregate(userId, filter, groupBy)
+                .collectList()
+                .map(rows -> ExpenseService.summarize(groupBy, rows));
+    }
+    
+    // Um cancelamento (cliente desconectado) não pode cancelar o futuro do cache, que outras
+    // requisições do mesmo período podem estar esperando.
+    public Mono<DashboardDTO> getDashboard(Long userId, YearMonth month, LocalDate startDate, LocalDate endDate) {
+        DashboardService.DashboardKey key = DashboardService.key(userId, month, startDate, endDate);
+        return Mono.fromFuture(() -> dashboardService.getDashboardAsync(key, k -> repository
+                .getDashboard(k.userId(), k.previousStart(), k.start(), k.end(), k.seriesEnd())
+                .collectList()
+                .toFuture()), true);
+    }
+    
+    public Flux<CategoryDTO> findCategories(Long userId) {
+        return repository.findCategories(userId);
+    }
+}
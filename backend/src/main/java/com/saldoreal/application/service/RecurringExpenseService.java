@@ -0,0 +1,184 @@
+package com.saldoreal.application.service;
+
+import com.saldoreal.application.event.ExpenseChangedEvent;
+import com.saldoreal.domain.repository.ExpenseRepository;
+import com.saldoreal.domain.repository.RecurringOccurrence;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+
+@Service
+public class RecurringExpenseService {
+    
+    private static final Logger log = LoggerFactory.getLogger(RecurringExpenseService.class);
+    
+    private final ExpenseRepository expenseRepository;
+    private final BudgetService budgetService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+    private final int maxCatchUpMonths;
+    
+    // Poucos trabalhadores e fila curta: quando lotam, quem percorre os usuários processa o lote
+    // ele mesmo, e a leitura dos próximos ids espera. Nunca há mais lotes em memória que isso.
+    private final ThreadPoolExecutor workers;
+    
+    private final Timer runTimer;
+    private final Timer chunkTimer;
+    private final Counter usersCounter;
+    private final Counter generatedCounter;
+    private final Counter failedChunksCounter;
+    private final AtomicLong lastCompletedAt = new AtomicLong();
+    
+    public RecurringExpenseService(ExpenseRepository expenseRepository,
+                                   BudgetService budgetService,
+                                   ApplicationEventPublisher eventPublisher,
+                                   PlatformTransactionManager transactionManager,
+                                   MeterRegistry registry,
+                                   @Value("${recurring.chunk-size:500}") int chunkSize,
+                                   @Value("${recurring.workers:4}") int workerCount,
+                                   @Value("${recurring.max-catch-up-months:12}") int maxCatchUpMonths) {
+        this.expenseRepository = expenseRepository;
+        this.budgetService = budgetService;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+        this.maxCatchUpMonths = maxCatchUpMonths;
+        
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.workers = new ThreadPoolExecutor(workerCount, workerCount, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(workerCount),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "recorrentes-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.CallerRunsPolicy());
+        
+        this.runTimer = Timer.builder("saldoreal.recurring.run")
+                .description("Duração de cada execução da geração de despesas recorrentes")
+                .register(registry);
+        this.chunkTimer = Timer.builder("saldoreal.recurring.chunk")
+                .description("Duração de cada lote de usuários")
+                .register(registry);
+        this.usersCounter = Counter.builder("saldoreal.recurring.users")
+                .description("Usuários processados")
+                .register(registry);
+        this.generatedCounter = Counter.builder("saldoreal.recurring.generated")
+                .description("Ocorrências de despesas recorrentes geradas")
+                .register(registry);
+        this.failedChunksCounter = Counter.builder("saldoreal.recurring.failures")
+                .description("Lotes de usuários com erro")
+                .register(registry);
+        Gauge.builder("saldoreal.recurring.lag", lastCompletedAt, RecurringExpenseService::secondsSince)
+                .description("Segundos desde o início da última execução concluída")
+                .baseUnit("seconds")
+                .register(registry);
+    }
+    
+    // Percorre os usuários com despesas recorrentes em lotes por id (keyset) e gera as ocorrências
+    // até today. Para, sem iniciar novos lotes, quando keepGoing deixa de valer (concessão perdida).
+    public long generate(LocalDate today, BooleanSupplier keepGoing) {
+        Instant start = Instant.now();
+        LocalDate oldest = today.minusMonths(maxCatchUpMonths);
+        List<Future<Integer>> chunks = new ArrayList<>();
+        
+        long afterUserId = 0;
+        List<Long> userIds;
+        boolean completed = true;
+        do {
+            if (!keepGoing.getAsBoolean()) {
+                completed = false;
+                break;
+            }
+            userIds = expenseRepository.findRecurringUserIds(afterUserId, chunkSize);
+            if (!userIds.isEmpty()) {
+                List<Long> chunk = userIds;
+                chunks.add(workers.submit(() -> generateChunk(chunk, today, oldest)));
+                afterUserId = userIds.get(userIds.size() - 1);
+            }
+        } while (userIds.size() == chunkSize);
+        
+        long generated = 0;
+        for (Future<Integer> chunk : chunks) {
+            try {
+                generated += chunk.get();
+            } catch (ExecutionException e) {
+                completed = false;
+                failedChunksCounter.increment();
+                log.error("Falha ao gerar despesas recorrentes de um lote de usuários", e.getCause());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException("Geração de despesas recorrentes interrompida", e);
+            }
+        }
+        
+        runTimer.record(Duration.between(start, Instant.now()));
+        if (completed) {
+            lastCompletedAt.set(start.getEpochSecond());
+        }
+        log.info("Despesas recorrentes até {}: {} ocorrências geradas em {} lotes{}",
+                today, generated, chunks.size(), completed ? "" : " (execução incompleta)");
+        return generated;
+    }
+    
+    // Um lote por transação: o comando gera as ocorrências e ajusta o consolidado; depois do commit,
+    // o dashboard e os orçamentos dos usuários afetados são atualizados.
+    private int generateChunk(List<Long> userIds, LocalDate today, LocalDate oldest) {
+        Integer generated = chunkTimer.record(() -> transactionTemplate.execute(status -> {
+            List<RecurringOccurrence> occurrences = expenseRepository.generateRecurring(userIds, today, oldest);
+            
+            Map<Long, Set<LocalDate>> datesByUser = new HashMap<>();
+            int count = 0;
+            for (RecurringOccurrence occurrence : occurrences) {
+                datesByUser.computeIfAbsent(occurrence.userId(), id -> new HashSet<>()).add(occurrence.date());
+                count += occurrence.count();
+            }
+            datesByUser.forEach((userId, dates) -> {
+                eventPublisher.publishEvent(new ExpenseChangedEvent(userId, dates));
+                budgetService.reload(userId);
+            });
+            return count;
+        }));
+        usersCounter.increment(userIds.size());
+        generatedCounter.increment(generated);
+        return generated;
+    }
+    
+    private static double secondsSince(AtomicLong epochSecond) {
+        long value = epochSecond.get();
+        return value == 0 ? Double.NaN : Instant.now().getEpochSecond() - value;
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        workers.shutdownNow();
+    }
+}
@@ -0,0 +1,44 @@
+package com.saldoreal.domain.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Entity
+@Table(name = "despesas_totais_diarios",
+       uniqueConstraints = @UniqueConstraint(
+           name = "uk_despesas_totais_diarios",
+           columnNames = {"usuario_id", "ano", "mes", "dia", "categoria_id"}))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ExpenseDailyTotal {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(name = "usuario_id", nullable = false)
+    private Long userId;
+    
+    @Column(name = "ano", nullable = false)
+    private Integer year;
+    
+    @Column(name = "mes", nullable = false)
+    private Integer month;
+    
+    @Column(name = "dia", nullable = false)
+    private Integer day;
+    
+    @Column(name = "categoria_id", nullable = false)
+    private Long categoryId;
+    
+    @Column(name = "total", nullable = false, precision = 14, scale = 2)
+    private BigDecimal total;
+    
+    @Column(name = "quantidade", nullable = false)
+    private Integer count;
+}
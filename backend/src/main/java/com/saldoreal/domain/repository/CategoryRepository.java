@@ -2,12 +2,30 @@ package com.saldoreal.domain.repository;
 
 import com.saldoreal.domain.model.Category;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface CategoryRepository extends JpaRepository<Category, Long> {
     List<Category> findByUserId(Long userId);
+    
+    Optional<Category> findByIdAndUserId(Long id, Long userId);
+    
+    boolean existsByIdAndUserId(Long id, Long userId);
+    
+    @Query("SELECT c.user.id, c.id, c.monthlyLimit FROM Category c WHERE c.monthlyLimit IS NOT NULL")
+    List<Object[]> findAllLimits();
+    
+    @Query("SELECT c.user.id, c.id, c.monthlyLimit FROM Category c " +
+           "WHERE c.user.id = :userId AND c.monthlyLimit IS NOT NULL")
+    List<Object[]> findLimitsByUserId(@Param("userId") Long userId);
+    
+    @Modifying
+    @Query("DELETE FROM Category c WHERE c.id = :id AND c.user.id = :userId")
+    int deleteByIdAndUserId(@Param("id") Long id, @Param("userId") Long userId);
 }
-
@@ -0,0 +1,19 @@
+package com.saldoreal.domain.repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+// Linha da consulta única do dashboard. O tipo indica o bloco a que ela pertence:
+// T = totais do período e do anterior, C = total por categoria, D = total por dia.
+public interface DashboardRow {
+    
+    String getTipo();
+    
+    String getRotulo();
+    
+    LocalDate getData();
+    
+    BigDecimal getTotal();
+    
+    BigDecimal getTotalAnterior();
+}
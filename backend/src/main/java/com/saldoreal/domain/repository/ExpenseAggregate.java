@@ -0,0 +1,14 @@
+package com.saldoreal.domain.repository;
+
+import java.math.BigDecimal;
+
+// Uma linha agregada de despesas; key/label são nulos na linha de total geral.
+public record ExpenseAggregate(boolean grandTotal,
+                               String key,
+                               String label,
+                               long count,
+                               BigDecimal total,
+                               BigDecimal average,
+                               BigDecimal min,
+                               BigDecimal max) {
+}
@@ -0,0 +1,9 @@
+package com.saldoreal.domain.repository;
+
+// Campos a gravar numa alteração em massa; null mantém o valor de cada despesa.
+public record ExpenseBulkChange(Long categoryId, String paymentMethod, Boolean recurring) {
+    
+    public boolean isEmpty() {
+        return categoryId == null && paymentMethod == null && recurring == null;
+    }
+}
@@ -0,0 +1,9 @@
+package com.saldoreal.domain.repository;
+
+import java.time.LocalDate;
+import java.util.Set;
+
+// Resultado de uma operação em massa: despesas afetadas, as datas delas e, entre essas, as datas
+// cujos totais mudaram (trocar só a forma de pagamento não mexe no consolidado).
+public record ExpenseBulkResult(long affected, Set<LocalDate> affectedDates, Set<LocalDate> changedDates) {
+}
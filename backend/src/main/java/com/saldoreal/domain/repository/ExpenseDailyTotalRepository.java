@@ -0,0 +1,139 @@
+package com.saldoreal.domain.repository;
+
+import com.saldoreal.domain.model.ExpenseDailyTotal;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface ExpenseDailyTotalRepository extends JpaRepository<ExpenseDailyTotal, Long> {
+    
+    // Dashboard inteiro numa ida ao banco: lê uma vez os dias do período anterior e do atual
+    // (faixa contínua no índice único) e devolve totais, categorias e série diária.
+    // Também usada pela leitura reativa, com os mesmos parâmetros.
+    String DASHBOARD_QUERY = "WITH periodo AS (" +
+            "SELECT t.categoria_id, make_date(t.ano, t.mes, t.dia) AS data, t.total " +
+            "FROM despesas_totais_diarios t WHERE t.usuario_id = :userId " +
+            "AND (t.ano, t.mes, t.dia) >= (:fromYear, :fromMonth, :fromDay) " +
+            "AND (t.ano, t.mes, t.dia) <= (:toYear, :toMonth, :toDay)), " +
+            "atual AS (SELECT * FROM periodo WHERE data >= :start) " +
+            "SELECT 'T' AS tipo, CAST(NULL AS VARCHAR) AS rotulo, CAST(NULL AS DATE) AS data, " +
+            "(SELECT SUM(total) FROM atual) AS total, " +
+            "(SELECT SUM(total) FROM periodo WHERE data < :start) AS total_anterior " +
+            "UNION ALL " +
+            "SELECT 'C', c.nome, NULL, SUM(a.total), NULL " +
+            "FROM atual a JOIN categorias c ON c.id = a.categoria_id GROUP BY c.nome " +
+            "UNION ALL " +
+            "SELECT 'D', NULL, a.data, SUM(a.total), NULL " +
+            "FROM atual a WHERE a.data <= :seriesEnd GROUP BY a.data " +
+            "ORDER BY tipo, data, total DESC";
+    
+    @Modifying
+    @Query(value = "INSERT INTO despesas_totais_diarios (usuario_id, ano, mes, dia, categoria_id, total, quantidade) " +
+                   "VALUES (:userId, :year, :month, :day, :categoryId, :amount, :count) " +
+                   "ON CONFLICT (usuario_id, ano, mes, dia, categoria_id) DO UPDATE SET " +
+                   "total = despesas_totais_diarios.total + EXCLUDED.total, " +
+                   "quantidade = despesas_totais_diarios.quantidade + EXCLUDED.quantidade",
+           nativeQuery = true)
+    void addToDay(@Param("userId") Long userId,
+                  @Param("year") int year,
+                  @Param("month") int month,
+                  @Param("day") int day,
+                  @Param("categoryId") Long categoryId,
+                  @Param("amount") BigDecimal amount,
+                  @Param("count") int count);
+    
+    // Soma de uma vez um conjunto de despesas já gravadas: um único upsert agregado por dia e categoria.
+    // Filtra só pela chave primária, para que o plano não dependa das estatísticas do usuário.
+    @Modifying
+    @Query(value = "INSERT INTO despesas_totais_diarios (usuario_id, ano, mes, dia, categoria_id, total, quantidade) " +
+                   "SELECT usuario_id, EXTRACT(YEAR FROM data), EXTRACT(MONTH FROM data), EXTRACT(DAY FROM data), " +
+                   "categoria_id, SUM(valor), COUNT(*) FROM despesas " +
+                   "WHERE id = ANY(:expenseIds) " +
+                   "GROUP BY usuario_id, data, categoria_id " +
+                   "ON CONFLICT (usuario_id, ano, mes, dia, categoria_id) DO UPDATE SET " +
+                   "total = despesas_totais_diarios.total + EXCLUDED.total, " +
+                   "quantidade = despesas_totais_diarios.quantidade + EXCLUDED.quantidade",
+           nativeQuery = true)
+    int addExpenses(@Param("expenseIds") Long[] expenseIds);
+    
+    @Modifying
+    @Query("DELETE FROM ExpenseDailyTotal t WHERE t.userId = :userId " +
+           "AND t.year = :year AND t.month = :month AND t.day = :day " +
+           "AND t.categoryId = :categoryId AND t.count <= 0")
+    void deleteIfEmpty(@Param("userId") Long userId,
+                       @Param("year") int year,
+                       @Param("month") int month,
+                       @Param("day") int day,
+                       @Param("categoryId") Long categoryId);
+    
+    @Query(value = DASHBOARD_QUERY, nativeQuery = true)
+    List<DashboardRow> getDashboard(@Param("userId") Long userId,
+                                    @Param("fromYear") int fromYear,
+                                    @Param("fromMonth") int fromMonth,
+                                    @Param("fromDay") int fromDay,
+                                    @Param("toYear") int toYear,
+                                    @Param("toMonth") int toMonth,
+                                    @Param("toDay") int toDay,
+                                    @Param("start") LocalDate start,
+                                    @Param("seriesEnd") LocalDate seriesEnd);
+    
+    // Consumo do mês por usuário e categoria, para montar os orçamentos em memória.
+    @Query(value = "SELECT t.usuario_id, t.categoria_id, SUM(t.total) FROM despesas_totais_diarios t " +
+                   "WHERE t.ano = :year AND t.mes = :month GROUP BY t.usuario_id, t.categoria_id",
+           nativeQuery = true)
+    List<Object[]> sumMonthByUserAndCategory(@Param("year") int year, @Param("month") int month);
+    
+    @Query(value = "SELECT t.usuario_id, t.categoria_id, SUM(t.total) FROM despesas_totais_diarios t " +
+                   "WHERE t.usuario_id = :userId AND t.ano = :year AND t.mes = :month GROUP BY t.usuario_id, t.categoria_id",
+           nativeQuery = true)
+    List<Object[]> sumMonthByCategory(@Param("userId") Long userId, @Param("year") int year, @Param("month") int month);
+    
+    @Modifying
+    @Query(value = "LOCK TABLE despesas_totais_diarios IN EXCLUSIVE MODE", nativeQuery = true)
+    void lockForRebuild();
+    
+    @Modifying
+    @Query("DELETE FROM ExpenseDailyTotal t WHERE t.userId = :userId")
+    int deleteByUserId(@Param("userId") Long userId);
+    
+    @Modifying
+    @Query("DELETE FROM ExpenseDailyTotal t")
+    int deleteAllTotals();
+    
+    @Modifying
+    @Query(value = "INSERT INTO despesas_totais_diarios (usuario_id, ano, mes, dia, categoria_id, total, quantidade) " +
+                   "SELECT usuario_id, EXTRACT(YEAR FROM data), EXTRACT(MONTH FROM data), EXTRACT(DAY FROM data), " +
+                   "categoria_id, SUM(valor), COUNT(*) FROM despesas WHERE usuario_id = :userId " +
+                   "GROUP BY usuario_id, data, categoria_id",
+           nativeQuery = true)
+    int rebuildFromExpenses(@Param("userId") Long userId);
+    
+    @Modifying
+    @Query(value = "INSERT INTO despesas_totais_diarios (usuario_id, ano, mes, dia, categoria_id, total, quantidade) " +
+                   "SELECT usuario_id, EXTRACT(YEAR FROM data), EXTRACT(MONTH FROM data), EXTRACT(DAY FROM data), " +
+                   "categoria_id, SUM(valor), COUNT(*) FROM despesas " +
+                   "GROUP BY usuario_id, data, categoria_id",
+           nativeQuery = true)
+    int rebuildAllFromExpenses();
+    
+    @Query(value = "SELECT COALESCE(t.usuario_id, d.usuario_id), COALESCE(t.ano, d.ano), " +
+                   "COALESCE(t.mes, d.mes), COALESCE(t.dia, d.dia), COALESCE(t.categoria_id, d.categoria_id), " +
+                   "t.total, d.total, t.quantidade, d.quantidade " +
+                   "FROM despesas_totais_diarios t FULL OUTER JOIN (" +
+                   "SELECT usuario_id, CAST(EXTRACT(YEAR FROM data) AS INTEGER) AS ano, " +
+                   "CAST(EXTRACT(MONTH FROM data) AS INTEGER) AS mes, CAST(EXTRACT(DAY FROM data) AS INTEGER) AS dia, " +
+                   "categoria_id, SUM(valor) AS total, CAST(COUNT(*) AS INTEGER) AS quantidade " +
+                   "FROM despesas GROUP BY usuario_id, data, categoria_id) d " +
+                   "ON t.usuario_id = d.usuario_id AND t.ano = d.ano AND t.mes = d.mes " +
+                   "AND t.dia = d.dia AND t.categoria_id = d.categoria_id " +
+                   "WHERE t.total IS DISTINCT FROM d.total OR t.quantidade IS DISTINCT FROM d.quantidade",
+           nativeQuery = true)
+    List<Object[]> findDiscrepancies();
+}
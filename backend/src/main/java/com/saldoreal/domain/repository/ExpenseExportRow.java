@@ -0,0 +1,17 @@
+package com.saldoreal.domain.repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+// Uma despesa como sai na exportação, já com o nome da categoria.
+public record ExpenseExportRow(Long id,
+                               LocalDate date,
+                               String description,
+                               Long categoryId,
+                               String categoryName,
+                               BigDecimal amount,
+                               String paymentMethod,
+                               String barcode,
+                               boolean recurring,
+                               String observations) {
+}
@@ -0,0 +1,9 @@
+package com.saldoreal.domain.repository;
+
+public enum ExpenseGroupBy {
+    CATEGORY,
+    PAYMENT_METHOD,
+    DAY,
+    WEEK,
+    MONTH
+}
@@ -0,0 +1,14 @@
+package com.saldoreal.domain.repository;
+
+// Posição de uma página por cursor: a ordenação ativa e, fora da primeira página,
+// o valor da coluna ordenada e o id da linha de referência.
+public record ExpenseKeyset(String sortBy,
+                            boolean ascending,
+                            boolean backward,
+                            Object value,
+                            Long id) {
+    
+    public boolean isFirstPage() {
+        return id == null;
+    }
+}
@@ -0,0 +1,38 @@
+package com.saldoreal.domain.repository;
+
+import com.saldoreal.application.dto.ExpenseDTO;
+import com.saldoreal.application.dto.ExpenseFilterDTO;
+import org.springframework.data.domain.Page;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.function.Consumer;
+
+public interface ExpenseRepositoryCustom {
+    
+    List<ExpenseAggregate> aggregate(Long userId, ExpenseFilterDTO filter, ExpenseGroupBy groupBy);
+    
+    // Página por OFFSET em SQL nativo, que aceita a busca textual (filter.q). Com ranked, ordena pela
+    // relevância da busca em vez de sortBy; o COUNT só é feito se houver mais de uma página.
+    Page<ExpenseDTO> findPage(Long userId, ExpenseFilterDTO filter, boolean ranked);
+    
+    List<ExpenseDTO> findByKeyset(Long userId, ExpenseFilterDTO filter, ExpenseKeyset keyset, int limit);
+    
+    long countWithFilters(Long userId, ExpenseFilterDTO filter);
+    
+    // Percorre o resultado com um cursor do banco; deve rodar dentro de uma transação.
+    void exportWithFilters(Long userId, ExpenseFilterDTO filter, Consumer<ExpenseExportRow> consumer);
+    
+    // Em massa, cada uma num único comando restrito ao usuário, que também ajusta o consolidado diário.
+    // As despesas são as do filtro, limitadas a ids quando informados.
+    ExpenseBulkResult deleteInBulk(Long userId, ExpenseFilterDTO filter, List<Long> ids);
+    
+    ExpenseBulkResult updateInBulk(Long userId, ExpenseFilterDTO filter, List<Long> ids, ExpenseBulkChange change);
+    
+    // Usuários com despesas recorrentes de origem, em ordem de id a partir de afterUserId (exclusive).
+    List<Long> findRecurringUserIds(Long afterUserId, int limit);
+    
+    // Gera, num único comando, as ocorrências mensais das despesas recorrentes dos usuários até today,
+    // sem voltar antes de oldest, e soma as novas ao consolidado diário.
+    List<RecurringOccurrence> generateRecurring(List<Long> userIds, LocalDate today, LocalDate oldest);
+}
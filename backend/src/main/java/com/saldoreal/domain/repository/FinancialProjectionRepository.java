@@ -2,12 +2,21 @@ package com.saldoreal.domain.repository;
 
 import com.saldoreal.domain.model.FinancialProjection;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface FinancialProjectionRepository extends JpaRepository<FinancialProjection, Long> {
     List<FinancialProjection> findByUserId(Long userId);
+    
+    Optional<FinancialProjection> findByIdAndUserId(Long id, Long userId);
+    
+    @Modifying
+    @Query("DELETE FROM FinancialProjection p WHERE p.id = :id AND p.user.id = :userId")
+    int deleteByIdAndUserId(@Param("id") Long id, @Param("userId") Long userId);
 }
-
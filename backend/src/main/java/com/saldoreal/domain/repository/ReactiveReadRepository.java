@@ -0,0 +1,21 @@
+package com.saldoreal.domain.repository;
+
+import com.saldoreal.application.dto.CategoryDTO;
+import com.saldoreal.application.dto.ExpenseDTO;
+import com.saldoreal.application.dto.ExpenseFilterDTO;
+import reactor.core.publisher.Flux;
+
+import java.time.LocalDate;
+
+// Consultas de leitura sobre o driver R2DBC, com o mesmo SQL das versões JDBC/JPA.
+public interface ReactiveReadRepository {
+    
+    Flux<ExpenseDTO> findPage(Long userId, ExpenseFilterDTO filter);
+    
+    Flux<ExpenseAggregate> aggregate(Long userId, ExpenseFilterDTO filter, ExpenseGroupBy groupBy);
+    
+    Flux<DashboardRow> getDashboard(Long userId, LocalDate previousStart, LocalDate start, LocalDate end,
+                                    LocalDate seriesEnd);
+    
+    Flux<CategoryDTO> findCategories(Long userId);
+}
@@ -0,0 +1,7 @@
+package com.saldoreal.domain.repository;
+
+import java.time.LocalDate;
+
+// Ocorrências de despesas recorrentes geradas para um usuário numa data.
+public record RecurringOccurrence(Long userId, LocalDate date, long count) {
+}
@@ -0,0 +1,388 @@
+package com.saldoreal.domain.repository.impl;
+
+import com.saldoreal.application.dto.ExpenseDTO;
+import com.saldoreal.application.dto.ExpenseFilterDTO;
+import com.saldoreal.domain.repository.ExpenseAggregate;
+import com.saldoreal.domain.repository.ExpenseBulkChange;
+import com.saldoreal.domain.repository.ExpenseBulkResult;
+import com.saldoreal.domain.repository.ExpenseExportRow;
+import com.saldoreal.domain.repository.ExpenseGroupBy;
+import com.saldoreal.domain.repository.ExpenseKeyset;
+import com.saldoreal.domain.repository.ExpenseRepositoryCustom;
+import com.saldoreal.domain.repository.RecurringOccurrence;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+
+public class ExpenseRepositoryCustomImpl implements ExpenseRepositoryCustom {
+    
+    // Linhas trazidas por ida ao banco na exportação; com a transação aberta, o driver
+    // do PostgreSQL usa um cursor e só mantém esse lote em memória.
+    private static final int EXPORT_FETCH_SIZE = 1000;
+    
+    // Colunas aceitas na paginação por cursor: não nulas, para que a comparação de tuplas funcione.
+    private static final Map<String, String> SORT_COLUMNS = Map.of(
+        "date", "d.data",
+        "amount", "d.valor",
+        "description", "d.descricao",
+        "id", "d.id"
+    );
+    
+    // Na paginação por OFFSET e na exportação, qualquer atributo ordenável da despesa, como no antigo
+    // caminho pelo JPA; as colunas que aceitam nulo os deixam no fim da ordem crescente.
+    private static final Map<String, String> PAGE_SORT_COLUMNS = Map.of(
+        "date", "d.data",
+        "amount", "d.valor",
+        "description", "d.descricao",
+        "id", "d.id",
+        "category", "d.categoria_id",
+        "paymentMethod", "d.forma_pagamento",
+        "barcode", "d.codigo_barras",
+        "recurring", "d.recorrente",
+        "observations", "d.observacoes",
+        "createdAt", "d.id" // criado_em não está entre as colunas lidas; o id cresce na mesma ordem
+    );
+    
+    static final String EXPENSE_COLUMNS = "d.id, d.data, d.descricao, d.categoria_id, d.valor, " +
+            "d.forma_pagamento, d.codigo_barras, d.recorrente, d.observacoes";
+    
+    private static final RowMapper<ExpenseDTO> EXPENSE_ROW_MAPPER = (rs, rowNum) -> {
+        ExpenseDTO dto = new ExpenseDTO();
+        dto.setId(rs.getLong("id"));
+        dto.setDate(rs.getObject("data", LocalDate.class));
+        dto.setDescription(rs.getString("descricao"));
+        dto.setCategoryId(rs.getLong("categoria_id"));
+        dto.setAmount(rs.getBigDecimal("valor"));
+        dto.setPaymentMethod(rs.getString("forma_pagamento"));
+        dto.setBarcode(rs.getString("codigo_barras"));
+        dto.setRecurring(rs.getBoolean("recorrente"));
+        dto.setObservations(rs.getString("observacoes"));
+        return dto;
+    };
+    
+    // Tira do consolidado os totais da CTE "saidas" (ano, mes, dia, categoria_id, total, quantidade):
+    // zera e remove as linhas que ficariam vazias e subtrai das demais. As duas CTEs tocam linhas
+    // distintas, então cabem no mesmo comando.
+    private static final String SUBTRACT_TOTALS =
+            "zerados AS (DELETE FROM despesas_totais_diarios t USING saidas s " +
+            "WHERE t.usuario_id = :userId AND t.ano = s.ano AND t.mes = s.mes AND t.dia = s.dia " +
+            "AND t.categoria_id = s.categoria_id AND t.quantidade <= s.quantidade), " +
+            "subtraidos AS (UPDATE despesas_totais_diarios t " +
+            "SET total = t.total - s.total, quantidade = t.quantidade - s.quantidade FROM saidas s " +
+            "WHERE t.usuario_id = :userId AND t.ano = s.ano AND t.mes = s.mes AND t.dia = s.dia " +
+            "AND t.categoria_id = s.categoria_id AND t.quantidade > s.quantidade)";
+    
+    private static final String DATE_PARTS = "CAST(EXTRACT(YEAR FROM data) AS INTEGER) AS ano, " +
+            "CAST(EXTRACT(MONTH FROM data) AS INTEGER) AS mes, CAST(EXTRACT(DAY FROM data) AS INTEGER) AS dia";
+    
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate exportJdbcTemplate;
+    
+    public ExpenseRepositoryCustomImpl(NamedParameterJdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        
+        JdbcTemplate streaming = new JdbcTemplate(jdbcTemplate.getJdbcTemplate().getDataSource());
+        streaming.setFetchSize(EXPORT_FETCH_SIZE);
+        this.exportJdbcTemplate = new NamedParameterJdbcTemplate(streaming);
+    }
+    
+    @Override
+    public List<ExpenseAggregate> aggregate(Long userId, ExpenseFilterDTO filter, ExpenseGroupBy groupBy) {
+        ExpenseSqlFilter where = ExpenseSqlFilter.of(userId, filter);
+        return jdbcTemplate.query(aggregateQuery(where, groupBy), where.params(), (rs, rowNum) -> new ExpenseAggregate(
+            rs.getBoolean("geral"),
+            rs.getString("chave"),
+            rs.getString("rotulo"),
+            rs.getLong("quantidade"),
+            rs.getBigDecimal("total"),
+            rs.getBigDecimal("media"),
+            rs.getBigDecimal("minimo"),
+            rs.getBigDecimal("maximo")
+        ));
+    }
+    
+    // As consultas de agregação e de página também servem à leitura reativa (ReactiveReadRepositoryImpl).
+    static String aggregateQuery(ExpenseSqlFilter where, ExpenseGroupBy groupBy) {
+        String key = groupBy != null ? keyExpression(groupBy) : "NULL";
+        String label = groupBy == ExpenseGroupBy.CATEGORY ? "c.nome" : "NULL";
+        String from = groupBy == ExpenseGroupBy.CATEGORY
+                ? "despesas d JOIN categorias c ON c.id = d.categoria_id"
+                : "despesas d";
+        // Total geral e grupos saem do mesmo agregado, numa única ida ao banco.
+        String groupingSet = groupBy == ExpenseGroupBy.CATEGORY ? key + ", " + label : key;
+        String groupClause = groupBy != null
+                ? " GROUP BY GROUPING SETS ((), (" + groupingSet + ")) ORDER BY GROUPING(" + key + ") DESC, 2"
+                : "";
+        String grandTotal = groupBy != null ? "GROUPING(" + key + ") = 1" : "TRUE";
+        
+        return "SELECT " + grandTotal + " AS geral, " + key + " AS chave, " + label + " AS rotulo, " +
+                "COUNT(*) AS quantidade, COALESCE(SUM(d.valor), 0) AS total, ROUND(AVG(d.valor), 2) AS media, " +
+                "MIN(d.valor) AS minimo, MAX(d.valor) AS maximo " +
+                "FROM " + from + " WHERE " + where.where() + groupClause;
+    }
+    
+    private static String keyExpression(ExpenseGroupBy groupBy) {
+        return switch (groupBy) {
+            case CATEGORY -> "CAST(d.categoria_id AS VARCHAR)";
+            case PAYMENT_METHOD -> "d.forma_pagamento";
+            case DAY -> "CAST(d.data AS VARCHAR)";
+            case WEEK -> "CAST(CAST(date_trunc('week', d.data) AS DATE) AS VARCHAR)";
+            case MONTH -> "to_char(d.data, 'YYYY-MM')";
+        };
+    }
+    
+    @Override
+    public Page<ExpenseDTO> findPage(Long userId, ExpenseFilterDTO filter, boolean ranked) {
+        ExpenseSqlFilter where = ExpenseSqlFilter.of(userId, filter);
+        String sql = pageQuery(where, filter, ranked);
+        Pageable pageable = PageRequest.of(filter.getPage(), Math.max(filter.getSize(), 1));
+        
+        List<ExpenseDTO> rows = jdbcTemplate.query(sql, where.params(), EXPENSE_ROW_MAPPER);
+        return PageableExecutionUtils.getPage(rows, pageable, () -> countWithFilters(userId, filter));
+    }
+    
+    static String pageQuery(ExpenseSqlFilter where, ExpenseFilterDTO filter, boolean ranked) {
+        String sql;
+        if (ranked && where.params().hasValue("search")) {
+            sql = "SELECT " + EXPENSE_COLUMNS + " FROM despesas d WHERE " + where.where() +
+                    " ORDER BY ts_rank(d.busca, " + ExpenseSqlFilter.SEARCH_QUERY + ") DESC, d.data DESC, d.id DESC";
+        } else {
+            String direction = "desc".equalsIgnoreCase(filter.getSortDir()) ? "DESC" : "ASC";
+            String column = sortColumn(PAGE_SORT_COLUMNS, filter.getSortBy() != null ? filter.getSortBy() : "date");
+            sql = selectOrdered(where, column + " " + direction + ", d.id " + direction);
+        }
+        
+        int size = Math.max(filter.getSize(), 1);
+        where.params().addValue("limit", size);
+        where.params().addValue("offset", (long) filter.getPage() * size);
+        return sql + " LIMIT :limit OFFSET :offset";
+    }
+    
+    @Override
+    public List<ExpenseDTO> findByKeyset(Long userId, ExpenseFilterDTO filter, ExpenseKeyset keyset, int limit) {
+        String column = sortColumn(SORT_COLUMNS, keyset.sortBy());
+        
+        // Voltar uma página é percorrer a mesma ordem ao contrário e inverter o resultado.
+        boolean ascending = keyset.ascending() != keyset.backward();
+        String direction = ascending ? "ASC" : "DESC";
+        
+        ExpenseSqlFilter where = ExpenseSqlFilter.of(userId, filter);
+        if (!keyset.isFirstPage()) {
+            where.and("(" + column + ", d.id) " + (ascending ? ">" : "<") + " (:keysetValue, :keysetId)",
+                    "keysetValue", keyset.value());
+            where.params().addValue("keysetId", keyset.id());
+        }
+        where.params().addValue("limit", limit);
+        
+        String sql = selectOrdered(where, column + " " + direction + ", d.id " + direction) + " LIMIT :limit";
+        
+        List<ExpenseDTO> rows = jdbcTemplate.query(sql, where.params(), EXPENSE_ROW_MAPPER);
+        if (keyset.backward()) {
+            Collections.reverse(rows);
+        }
+        return rows;
+    }
+    
+    // Com busca textual, as despesas encontradas pelo índice GIN são ordenadas só depois: sem o
+    // MATERIALIZED, o planejador tende a descer o índice por data filtrando linha a linha até
+    // achar a página, o que é lento justamente quando o termo é raro.
+    private static String selectOrdered(ExpenseSqlFilter where, String orderBy) {
+        String select = "SELECT " + EXPENSE_COLUMNS + " FROM despesas d WHERE " + where.where();
+        if (!where.params().hasValue("search")) {
+            return select + " ORDER BY " + orderBy;
+        }
+        return "WITH encontradas AS MATERIALIZED (" + select + ") SELECT * FROM encontradas d ORDER BY " + orderBy;
+    }
+    
+    @Override
+    public long countWithFilters(Long userId, ExpenseFilterDTO filter) {
+        ExpenseSqlFilter where = ExpenseSqlFilter.of(userId, filter);
+        Long count = jdbcTemplate.queryForObject(
+            "SELECT COUNT(*) FROM despesas d WHERE " + where.where(), where.params(), Long.class);
+        return count != null ? count : 0;
+    }
+    
+    @Override
+    public void exportWithFilters(Long userId, ExpenseFilterDTO filter, Consumer<ExpenseExportRow> consumer) {
+        String column = sortColumn(PAGE_SORT_COLUMNS, filter.getSortBy() != null ? filter.getSortBy() : "date");
+        String direction = "desc".equalsIgnoreCase(filter.getSortDir()) ? "DESC" : "ASC";
+        ExpenseSqlFilter where = ExpenseSqlFilter.of(userId, filter);
+        
+        String sql = "SELECT " + EXPENSE_COLUMNS + ", c.nome AS categoria " +
+                "FROM despesas d JOIN categorias c ON c.id = d.categoria_id WHERE " + where.where() +
+                " ORDER BY " + column + " " + direction + ", d.id " + direction;
+        
+        exportJdbcTemplate.query(sql, where.params(), rs -> {
+            consumer.accept(new ExpenseExportRow(
+                rs.getLong("id"),
+                rs.getObject("data", LocalDate.class),
+                rs.getString("descricao"),
+                rs.getLong("categoria_id"),
+                rs.getString("categoria"),
+                rs.getBigDecimal("valor"),
+                rs.getString("forma_pagamento"),
+                rs.getString("codigo_barras"),
+                rs.getBoolean("recorrente"),
+                rs.getString("observacoes")
+            ));
+        });
+    }
+    
+    @Override
+    public ExpenseBulkResult deleteInBulk(Long userId, ExpenseFilterDTO filter, List<Long> ids) {
+        ExpenseSqlFilter where = bulkFilter(userId, filter, ids);
+        String sql = "WITH removidas AS (DELETE FROM despesas d WHERE " + where.where() +
+                " RETURNING d.data, d.categoria_id, d.valor), " +
+                "saidas AS (SELECT " + DATE_PARTS + ", categoria_id, SUM(valor) AS total, COUNT(*) AS quantidade " +
+                "FROM removidas GROUP BY data, categoria_id), " +
+                SUBTRACT_TOTALS + " " +
+                "SELECT data, COUNT(*) AS quantidade, TRUE AS consolidado FROM removidas GROUP BY data";
+        return bulkResult(sql, where);
+    }
+    
+    @Override
+    public ExpenseBulkResult updateInBulk(Long userId, ExpenseFilterDTO filter, List<Long> ids,
+                                          ExpenseBulkChange change) {
+        ExpenseSqlFilter where = bulkFilter(userId, filter, ids);
+        List<String> assignments = new ArrayList<>();
+        if (change.categoryId() != null) {
+            assignments.add("categoria_id = :newCategoryId");
+            where.params().addValue("newCategoryId", change.categoryId());
+        }
+        if (change.paymentMethod() != null) {
+            assignments.add("forma_pagamento = :newPaymentMethod");
+            where.params().addValue("newPaymentMethod", change.paymentMethod());
+        }
+        if (change.recurring() != null) {
+            assignments.add("recorrente = :newRecurring");
+            where.params().addValue("newRecurring", change.recurring());
+        }
+        
+        // A autojunção com "o" expõe a categoria anterior no RETURNING. Só as despesas que
+        // trocaram de categoria movem valores no consolidado: saem da antiga e entram na nova.
+        String sql = "WITH alteradas AS (UPDATE despesas d SET " + String.join(", ", assignments) +
+                " FROM despesas o WHERE o.id = d.id AND " + where.where() +
+                " RETURNING d.data, o.categoria_id AS anterior, d.categoria_id AS nova, d.valor), " +
+                "saidas AS (SELECT " + DATE_PARTS + ", anterior AS categoria_id, SUM(valor) AS total, " +
+                "COUNT(*) AS quantidade FROM alteradas WHERE anterior <> nova GROUP BY data, anterior), " +
+                SUBTRACT_TOTALS + ", " +
+                "somados AS (INSERT INTO despesas_totais_diarios " +
+                "(usuario_id, ano, mes, dia, categoria_id, total, quantidade) " +
+                "SELECT :userId, " + DATE_PARTS + ", nova, SUM(valor), COUNT(*) " +
+                "FROM alteradas WHERE anterior <> nova GROUP BY data, nova " +
+                "ON CONFLICT (usuario_id, ano, mes, dia, categoria_id) DO UPDATE SET " +
+                "total = despesas_totais_diarios.total + EXCLUDED.total, " +
+                "quantidade = despesas_totais_diarios.quantidade + EXCLUDED.quantidade) " +
+                "SELECT data, COUNT(*) AS quantidade, BOOL_OR(anterior <> nova) AS consolidado " +
+                "FROM alteradas GROUP BY data";
+        return bulkResult(sql, where);
+    }
+    
+    @Override
+    public List<Long> findRecurringUserIds(Long afterUserId, int limit) {
+        String sql = "SELECT DISTINCT d.usuario_id FROM despesas d " +
+                "WHERE d.recorrente AND d.origem_recorrente_id IS NULL AND d.usuario_id > :afterUserId " +
+                "ORDER BY d.usuario_id LIMIT :limit";
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("afterUserId", afterUserId)
+                .addValue("limit", limit);
+        return jdbcTemplate.queryForList(sql, params, Long.class);
+    }
+    
+    @Override
+    public List<RecurringOccurrence> generateRecurring(List<Long> userIds, LocalDate today, LocalDate oldest) {
+        // Cada ocorrência é a data de origem mais n meses (o PostgreSQL ajusta o dia 31 ao fim do mês),
+        // entre a última já gerada (ou oldest) e today. A chave única (origem, data) descarta as que
+        // já existirem, e só as inseridas de fato vão para o consolidado.
+        String sql = "WITH origens AS (SELECT d.id, d.usuario_id, d.categoria_id, d.descricao, d.valor, " +
+                "d.forma_pagamento, d.observacoes, d.data, " +
+                "GREATEST(COALESCE(d.recorrencia_gerada_ate, d.data), CAST(:oldest AS DATE)) AS inicio " +
+                "FROM despesas d WHERE d.usuario_id = ANY(:userIds) AND d.recorrente " +
+                "AND d.origem_recorrente_id IS NULL AND d.data < CAST(:today AS DATE)), " +
+                "ocorrencias AS (SELECT o.*, CAST(o.data + n * INTERVAL '1 month' AS DATE) AS nova_data " +
+                "FROM origens o CROSS JOIN LATERAL generate_series(" +
+                "GREATEST(" + monthsBetween("o.data", "o.inicio") + ", 1), " +
+                monthsBetween("o.data", "CAST(:today AS DATE)") + ") AS n " +
+                "WHERE CAST(o.data + n * INTERVAL '1 month' AS DATE) > o.inicio " +
+                "AND CAST(o.data + n * INTERVAL '1 month' AS DATE) <= CAST(:today AS DATE)), " +
+                "marcadas AS (UPDATE despesas d SET recorrencia_gerada_ate = g.ate " +
+                "FROM (SELECT id, MAX(nova_data) AS ate FROM ocorrencias GROUP BY id) g WHERE d.id = g.id), " +
+                "inseridas AS (INSERT INTO despesas (data, descricao, categoria_id, valor, forma_pagamento, " +
+                "recorrente, observacoes, usuario_id, criado_em, origem_recorrente_id) " +
+                "SELECT nova_data, descricao, categoria_id, valor, forma_pagamento, FALSE, observacoes, " +
+                "usuario_id, LOCALTIMESTAMP, id FROM ocorrencias " +
+                "ON CONFLICT (origem_recorrente_id, data) WHERE origem_recorrente_id IS NOT NULL DO NOTHING " +
+                "RETURNING usuario_id, categoria_id, data, valor), " +
+                "somados AS (INSERT INTO despesas_totais_diarios " +
+                "(usuario_id, ano, mes, dia, categoria_id, total, quantidade) " +
+                "SELECT usuario_id, " + DATE_PARTS + ", categoria_id, SUM(valor), COUNT(*) " +
+                "FROM inseridas GROUP BY usuario_id, data, categoria_id " +
+                "ON CONFLICT (usuario_id, ano, mes, dia, categoria_id) DO UPDATE SET " +
+                "total = despesas_totais_diarios.total + EXCLUDED.total, " +
+                "quantidade = despesas_totais_diarios.quantidade + EXCLUDED.quantidade) " +
+                "SELECT usuario_id, data, COUNT(*) AS quantidade FROM inseridas GROUP BY usuario_id, data";
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("userIds", userIds.toArray(new Long[0]))
+                .addValue("today", today)
+                .addValue("oldest", oldest);
+        return jdbcTemplate.query(sql, params, (rs, rowNum) -> new RecurringOccurrence(
+            rs.getLong("usuario_id"),
+            rs.getObject("data", LocalDate.class),
+            rs.getLong("quantidade")
+        ));
+    }
+    
+    private static String monthsBetween(String from, String to) {
+        return "CAST((EXTRACT(YEAR FROM " + to + ") - EXTRACT(YEAR FROM " + from + ")) * 12 + " +
+                "EXTRACT(MONTH FROM " + to + ") - EXTRACT(MONTH FROM " + from + ") AS INTEGER)";
+    }
+    
+    private ExpenseSqlFilter bulkFilter(Long userId, ExpenseFilterDTO filter, List<Long> ids) {
+        ExpenseSqlFilter where = ExpenseSqlFilter.of(userId, filter != null ? filter : new ExpenseFilterDTO());
+        if (ids != null) {
+            where.and("d.id = ANY(:ids)", "ids", ids.toArray(new Long[0]));
+        }
+        // Só o usuário no WHERE atingiria todas as despesas dele (por exemplo, q sem letras nem dígitos).
+        if (!where.restricted()) {
+            throw new IllegalArgumentException("Operação em massa sem ids nem critério de filtro");
+        }
+        return where;
+    }
+    
+    private ExpenseBulkResult bulkResult(String sql, ExpenseSqlFilter where) {
+        long[] affected = {0};
+        Set<LocalDate> affectedDates = new HashSet<>();
+        Set<LocalDate> changedDates = new HashSet<>();
+        jdbcTemplate.query(sql, where.params(), rs -> {
+            affected[0] += rs.getLong("quantidade");
+            LocalDate date = rs.getObject("data", LocalDate.class);
+            affectedDates.add(date);
+            if (rs.getBoolean("consolidado")) {
+                changedDates.add(date);
+            }
+        });
+        return new ExpenseBulkResult(affected[0], affectedDates, changedDates);
+    }
+    
+    private static String sortColumn(Map<String, String> columns, String sortBy) {
+        String column = columns.get(sortBy);
+        if (column == null) {
+            throw new IllegalArgumentException("Ordenação não suportada: " + sortBy);
+        }
+        return column;
+    }
+}
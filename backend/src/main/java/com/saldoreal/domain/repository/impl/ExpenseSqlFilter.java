@@ -0,0 +1,82 @@
+package com.saldoreal.domain.repository.impl;
+
+import com.saldoreal.application.dto.ExpenseFilterDTO;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+
+import java.util.StringJoiner;
+
+// Traduz o ExpenseFilterDTO para um WHERE em SQL nativo sobre "despesas d",
+// incluindo só os predicados informados para que o planejador use os índices.
+final class ExpenseSqlFilter {
+    
+    // Termo da busca textual, comparado à coluna gerada "busca" (português, sem acentos).
+    static final String SEARCH_QUERY = "to_tsquery('portuguese', f_unaccent(:search))";
+    
+    private final StringBuilder where = new StringBuilder("d.usuario_id = :userId");
+    private final MapSqlParameterSource params = new MapSqlParameterSource();
+    
+    private ExpenseSqlFilter(Long userId) {
+        params.addValue("userId", userId);
+    }
+    
+    static ExpenseSqlFilter of(Long userId, ExpenseFilterDTO filter) {
+        ExpenseSqlFilter sql = new ExpenseSqlFilter(userId);
+        if (filter.getStartDate() != null) {
+            sql.and("d.data >= :startDate", "startDate", filter.getStartDate());
+        }
+        if (filter.getEndDate() != null) {
+            sql.and("d.data <= :endDate", "endDate", filter.getEndDate());
+        }
+        if (filter.getCategoryId() != null) {
+            sql.and("d.categoria_id = :categoryId", "categoryId", filter.getCategoryId());
+        }
+        if (filter.getMinAmount() != null) {
+            sql.and("d.valor >= :minAmount", "minAmount", filter.getMinAmount());
+        }
+        if (filter.getMaxAmount() != null) {
+            sql.and("d.valor <= :maxAmount", "maxAmount", filter.getMaxAmount());
+        }
+        if (filter.getPaymentMethod() != null) {
+            sql.and("d.forma_pagamento = :paymentMethod", "paymentMethod", filter.getPaymentMethod());
+        }
+        String search = searchTerms(filter.getQ());
+        if (search != null) {
+            sql.and("d.busca @@ " + SEARCH_QUERY, "search", search);
+        }
+        return sql;
+    }
+    
+    // Cada palavra vira um prefixo obrigatório ("farm sao" encontra "Farmácia São João"). Só letras
+    // e dígitos passam, para que o texto do usuário não seja interpretado como operador do tsquery.
+    static String searchTerms(String q) {
+        if (q == null) {
+            return null;
+        }
+        StringJoiner terms = new StringJoiner(" & ");
+        for (String word : q.split("[^\\p{L}\\p{N}]+")) {
+            if (!word.isEmpty()) {
+                terms.add(word + ":*");
+            }
+        }
+        return terms.length() > 0 ? terms.toString() : null;
+    }
+    
+    ExpenseSqlFilter and(String predicate, String name, Object value) {
+        where.append(" AND ").append(predicate);
+        params.addValue(name, value);
+        return this;
+    }
+    
+    // Se há algum predicado além do usuário.
+    boolean restricted() {
+        return params.getParameterNames().length > 1;
+    }
+    
+    String where() {
+        return where.toString();
+    }
+    
+    MapSqlParameterSource params() {
+        return params;
+    }
+}
@@ -0,0 +1,151 @@
+package com.saldoreal.domain.repository.impl;
+
+import com.saldoreal.application.dto.CategoryDTO;
+import com.saldoreal.application.dto.ExpenseDTO;
+import com.saldoreal.application.dto.ExpenseFilterDTO;
+import com.saldoreal.domain.repository.DashboardRow;
+import com.saldoreal.domain.repository.ExpenseAggregate;
+import com.saldoreal.domain.repository.ExpenseDailyTotalRepository;
+import com.saldoreal.domain.repository.ExpenseGroupBy;
+import com.saldoreal.domain.repository.ReactiveReadRepository;
+import io.r2dbc.spi.Readable;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@Repository
+@ConditionalOnProperty(name = "reactive.enabled", havingValue = "true")
+public class ReactiveReadRepositoryImpl implements ReactiveReadRepository {
+    
+    // Linhas pedidas ao banco por vez: o driver só busca o próximo lote quando o assinante
+    // (a resposta HTTP) consumiu o anterior.
+    private static final int FETCH_SIZE = 500;
+    
+    private final DatabaseClient client;
+    
+    public ReactiveReadRepositoryImpl(DatabaseClient client) {
+        this.client = client;
+    }
+    
+    @Override
+    public Flux<ExpenseDTO> findPage(Long userId, ExpenseFilterDTO filter) {
+        ExpenseSqlFilter where = ExpenseSqlFilter.of(userId, filter);
+        String sql = ExpenseRepositoryCustomImpl.pageQuery(where, filter, false);
+        return query(sql, where.params()).map(ReactiveReadRepositoryImpl::toExpense).all();
+    }
+    
+    @Override
+    public Flux<ExpenseAggregate> aggregate(Long userId, ExpenseFilterDTO filter, ExpenseGroupBy groupBy) {
+        ExpenseSqlFilter where = ExpenseSqlFilter.of(userId, filter);
+        return query(ExpenseRepositoryCustomImpl.aggregateQuery(where, groupBy), where.params())
+                .map(row -> new ExpenseAggregate(
+                    row.get("geral", Boolean.class),
+                    row.get("chave", String.class),
+                    row.get("rotulo", String.class),
+                    row.get("quantidade", Long.class),
+                    row.get("total", BigDecimal.class),
+                    row.get("media", BigDecimal.class),
+                    row.get("minimo", BigDecimal.class),
+                    row.get("maximo", BigDecimal.class)
+                ))
+                .all();
+    }
+    
+    @Override
+    public Flux<DashboardRow> getDashboard(Long userId, LocalDate previousStart, LocalDate start, LocalDate end,
+                                           LocalDate seriesEnd) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("userId", userId)
+                .addValue("fromYear", previousStart.getYear())
+                .addValue("fromMonth", previousStart.getMonthValue())
+                .addValue("fromDay", previousStart.getDayOfMonth())
+                .addValue("toYear", end.getYear())
+                .addValue("toMonth", end.getMonthValue())
+                .addValue("toDay", end.getDayOfMonth())
+                .addValue("start", start)
+                .addValue("seriesEnd", seriesEnd);
+        return query(ExpenseDailyTotalRepository.DASHBOARD_QUERY, params)
+                .map(row -> (DashboardRow) new Row(
+                    row.get("tipo", String.class),
+                    row.get("rotulo", String.class),
+                    row.get("data", LocalDate.class),
+                    row.get("total", BigDecimal.class),
+                    row.get("total_anterior", BigDecimal.class)
+                ))
+                .all();
+    }
+    
+    @Override
+    public Flux<CategoryDTO> findCategories(Long userId) {
+        return client.sql("SELECT c.id, c.nome, c.limite_mensal, c.cor, c.icone FROM categorias c " +
+                          "WHERE c.usuario_id = :userId ORDER BY c.id")
+                .bind("userId", userId)
+                .map(row -> {
+                    CategoryDTO dto = new CategoryDTO();
+                    dto.setId(row.get("id", Long.class));
+                    dto.setName(row.get("nome", String.class));
+                    dto.setMonthlyLimit(row.get("limite_mensal", BigDecimal.class));
+                    dto.setColor(row.get("cor", String.class));
+                    dto.setIcon(row.get("icone", String.class));
+                    return dto;
+                })
+                .all();
+    }
+    
+    // Os filtros montam parâmetros nomeados para o NamedParameterJdbcTemplate; aqui viram binds do R2DBC.
+    private DatabaseClient.GenericExecuteSpec query(String sql, MapSqlParameterSource params) {
+        DatabaseClient.GenericExecuteSpec spec = client.sql(sql).filter(statement -> statement.fetchSize(FETCH_SIZE));
+        for (String name : params.getParameterNames()) {
+            spec = spec.bind(name, params.getValue(name));
+        }
+        return spec;
+    }
+    
+    private static ExpenseDTO toExpense(Readable row) {
+        ExpenseDTO dto = new ExpenseDTO();
+        dto.setId(row.get("id", Long.class));
+        dto.setDate(row.get("data", LocalDate.class));
+        dto.setDescription(row.get("descricao", String.class));
+        dto.setCategoryId(row.get("categoria_id", Long.class));
+        dto.setAmount(row.get("valor", BigDecimal.class));
+        dto.setPaymentMethod(row.get("forma_pagamento", String.class));
+        dto.setBarcode(row.get("codigo_barras", String.class));
+        dto.setRecurring(row.get("recorrente", Boolean.class));
+        dto.setObservations(row.get("observacoes", String.class));
+        return dto;
+    }
+    
+    private record Row(String tipo, String rotulo, LocalDate data, BigDecimal total, BigDecimal totalAnterior)
+            implements DashboardRow {
+        
+        @Override
+        public String getTipo() {
+            return tipo;
+        }
+        
+        @Override
+        public String getRotulo() {
+            return rotulo;
+        }
+        
+        @Override
+        public LocalDate getData() {
+            return data;
+        }
+        
+        @Override
+        public BigDecimal getTotal() {
+            return total;
+        }
+        
+        @Override
+        public BigDecimal getTotalAnterior() {
+            return totalAnterior;
+        }
+    }
+}
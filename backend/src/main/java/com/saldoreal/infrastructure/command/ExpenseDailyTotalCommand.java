@@ -0,0 +1,60 @@
+package com.saldoreal.infrastructure.command;
+
+import com.saldoreal.application.service.ExpenseDailyTotalService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+// Uso: --totals.rebuild[=userId] reconstrói o consolidado; --totals.check compara com a tabela despesas.
+@Component
+public class ExpenseDailyTotalCommand implements ApplicationRunner {
+    
+    private static final Logger log = LoggerFactory.getLogger(ExpenseDailyTotalCommand.class);
+    
+    private static final String REBUILD = "totals.rebuild";
+    private static final String CHECK = "totals.check";
+    
+    private final ExpenseDailyTotalService totalService;
+    
+    public ExpenseDailyTotalCommand(ExpenseDailyTotalService totalService) {
+        this.totalService = totalService;
+    }
+    
+    @Override
+    public void run(ApplicationArguments args) {
+        if (args.containsOption(REBUILD)) {
+            rebuild(args.getOptionValues(REBUILD));
+        }
+        if (args.containsOption(CHECK)) {
+            check();
+        }
+    }
+    
+    private void rebuild(List<String> userIds) {
+        if (userIds == null || userIds.isEmpty()) {
+            int rows = totalService.rebuildAll();
+            log.info("Consolidado diário reconstruído para todos os usuários ({} linhas)", rows);
+            return;
+        }
+        for (String userId : userIds) {
+            int rows = totalService.rebuild(Long.valueOf(userId));
+            log.info("Consolidado diário reconstruído para o usuário {} ({} linhas)", userId, rows);
+        }
+    }
+    
+    private void check() {
+        List<ExpenseDailyTotalService.Discrepancy> discrepancies = totalService.findDiscrepancies();
+        if (discrepancies.isEmpty()) {
+            log.info("Consolidado diário consistente com a tabela despesas");
+            return;
+        }
+        for (ExpenseDailyTotalService.Discrepancy discrepancy : discrepancies) {
+            log.warn("Divergência no consolidado: {}", discrepancy);
+        }
+        log.warn("{} divergências encontradas; execute com --{} para corrigir", discrepancies.size(), REBUILD);
+    }
+}
@@ -0,0 +1,45 @@
+package com.saldoreal.infrastructure.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+// Registra quantos comandos SQL cada requisição emitiu, por método e padrão de URI
+// (os mesmos rótulos de http.server.requests), para achar N+1 pelas métricas.
+@Component
+public class QueryCountFilter extends OncePerRequestFilter {
+    
+    private final MeterRegistry registry;
+    
+    public QueryCountFilter(MeterRegistry registry) {
+        this.registry = registry;
+    }
+    
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        QueryCountInspector.start();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            int queries = QueryCountInspector.stop();
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            DistributionSummary.builder("saldoreal.http.queries")
+                    .description("Comandos SQL emitidos pelo Hibernate por requisição")
+                    .baseUnit("queries")
+                    .tag("method", request.getMethod())
+                    .tag("uri", pattern != null ? pattern.toString() : "UNKNOWN")
+                    .register(registry)
+                    .record(queries);
+        }
+    }
+}
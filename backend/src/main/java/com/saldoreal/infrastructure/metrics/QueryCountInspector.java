@@ -0,0 +1,34 @@
+package com.saldoreal.infrastructure.metrics;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+// Conta os comandos SQL preparados pelo Hibernate na thread da requisição.
+// Consultas feitas direto pelo JdbcTemplate não passam por aqui.
+public class QueryCountInspector implements StatementInspector {
+    
+    private static final ThreadLocal<int[]> COUNT = new ThreadLocal<>();
+    
+    @Override
+    public String inspect(String sql) {
+        int[] count = COUNT.get();
+        if (count != null) {
+            count[0]++;
+        }
+        return sql;
+    }
+    
+    public static void start() {
+        COUNT.set(new int[1]);
+    }
+    
+    public static int current() {
+        int[] count = COUNT.get();
+        return count != null ? count[0] : 0;
+    }
+    
+    public static int stop() {
+        int count = current();
+        COUNT.remove();
+        return count;
+    }
+}
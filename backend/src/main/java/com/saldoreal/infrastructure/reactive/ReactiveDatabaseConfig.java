@@ -0,0 +1,73 @@
+package com.saldoreal.infrastructure.reactive;
+
+import io.micrometer.core.instrument.Tags;
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.metrics.r2dbc.ConnectionPoolMetrics;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.r2dbc.core.DatabaseClient;
+
+import java.time.Duration;
+
+// Pool R2DBC da leitura reativa, separado do Hikari: as consultas rodam nas poucas threads de
+// evento do driver, e nenhuma thread fica parada esperando o banco. O pool não é registrado
+// como bean: com um ConnectionFactory no contexto, o Spring Boot deixaria de criar o DataSource
+// do JPA.
+@Configuration
+@ConditionalOnProperty(name = "reactive.enabled", havingValue = "true")
+public class ReactiveDatabaseConfig {
+    
+    private final ConnectionPool pool;
+    
+    public ReactiveDatabaseConfig(@Value("${reactive.url:}") String url,
+                                  @Value("${spring.datasource.url}") String jdbcUrl,
+                                  @Value("${spring.datasource.username}") String username,
+                                  @Value("${spring.datasource.password}") String password,
+                                  @Value("${reactive.pool.initial-size:2}") int initialSize,
+                                  @Value("${reactive.pool.max-size:10}") int maxSize,
+                                  @Value("${reactive.pool.max-acquire-time:5s}") Duration maxAcquireTime) {
+        ConnectionFactoryOptions options = ConnectionFactoryOptions.parse(url.isBlank() ? r2dbcUrl(jdbcUrl) : url)
+                .mutate()
+                .option(ConnectionFactoryOptions.USER, username)
+                .option(ConnectionFactoryOptions.PASSWORD, password)
+                .build();
+        this.pool = new ConnectionPool(ConnectionPoolConfiguration.builder(ConnectionFactories.get(options))
+                .name("reativo")
+                .initialSize(initialSize)
+                .maxSize(maxSize)
+                .maxAcquireTime(maxAcquireTime)
+                .build());
+    }
+    
+    @Bean
+    public DatabaseClient reactiveDatabaseClient() {
+        return DatabaseClient.create(pool);
+    }
+    
+    // Métricas r2dbc.pool.* (conexões em uso, ociosas e pedidos esperando), rótulo name=reativo.
+    @Bean
+    public ConnectionPoolMetrics reactivePoolMetrics() {
+        return new ConnectionPoolMetrics(pool, "reativo", Tags.empty());
+    }
+    
+    @PreDestroy
+    public void close() {
+        pool.dispose();
+    }
+    
+    // jdbc:postgresql://host:5432/banco?opções → r2dbc:postgresql://host:5432/banco; as opções
+    // da URL são do driver JDBC e o driver R2DBC não as reconhece.
+    static String r2dbcUrl(String jdbcUrl) {
+        if (!jdbcUrl.startsWith("jdbc:postgresql:")) {
+            throw new IllegalStateException("Informe reactive.url para a URL " + jdbcUrl);
+        }
+        int query = jdbcUrl.indexOf('?');
+        return "r2dbc:" + jdbcUrl.substring("jdbc:".length(), query >= 0 ? query : jdbcUrl.length());
+    }
+}
@@ -0,0 +1,51 @@
+package com.saldoreal.infrastructure.scheduling;
+
+import com.saldoreal.application.service.RecurringExpenseService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDate;
+
+// Gera periodicamente as ocorrências das despesas recorrentes. Com várias instâncias,
+// só a que obtém a concessão executa; as demais pulam a rodada.
+@Component
+@EnableScheduling
+@ConditionalOnProperty(name = "recurring.enabled", havingValue = "true", matchIfMissing = true)
+public class RecurringExpenseScheduler {
+    
+    private static final Logger log = LoggerFactory.getLogger(RecurringExpenseScheduler.class);
+    
+    private static final String LEASE = "despesas-recorrentes";
+    
+    private final RecurringExpenseService recurringExpenseService;
+    private final SchedulerLease lease;
+    private final Duration leaseDuration;
+    
+    public RecurringExpenseScheduler(RecurringExpenseService recurringExpenseService,
+                                     SchedulerLease lease,
+                                     @Value("${recurring.lease:PT10M}") Duration leaseDuration) {
+        this.recurringExpenseService = recurringExpenseService;
+        this.lease = lease;
+        this.leaseDuration = leaseDuration;
+    }
+    
+    @Scheduled(cron = "${recurring.cron:0 5 * * * *}")
+    public void run() {
+        if (!lease.acquire(LEASE, leaseDuration)) {
+            log.debug("Geração de despesas recorrentes em execução em outra instância");
+            return;
+        }
+        try {
+            // A concessão é renovada antes de cada lote; perdida, a execução para e a próxima retoma.
+            recurringExpenseService.generate(LocalDate.now(), () -> lease.acquire(LEASE, leaseDuration));
+        } finally {
+            lease.release(LEASE);
+        }
+    }
+}
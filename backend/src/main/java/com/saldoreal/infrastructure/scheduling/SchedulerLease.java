@@ -0,0 +1,42 @@
+package com.saldoreal.infrastructure.scheduling;
+
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.UUID;
+
+// Concessão com prazo na tabela agendamentos_concessoes: entre várias instâncias, só a que
+// detém a linha executa a tarefa. Se ela cair, a concessão expira e outra pode assumir.
+@Component
+public class SchedulerLease {
+    
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final String owner = ManagementFactory.getRuntimeMXBean().getName() + "/" + UUID.randomUUID();
+    
+    public SchedulerLease(NamedParameterJdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+    
+    // Obtém a concessão se estiver livre ou vencida, ou a renova se já for desta instância.
+    public boolean acquire(String name, Duration duration) {
+        String sql = "INSERT INTO agendamentos_concessoes (nome, dono, valido_ate) " +
+                "VALUES (:name, :owner, now() + :seconds * INTERVAL '1 second') " +
+                "ON CONFLICT (nome) DO UPDATE SET dono = EXCLUDED.dono, valido_ate = EXCLUDED.valido_ate " +
+                "WHERE agendamentos_concessoes.valido_ate < now() OR agendamentos_concessoes.dono = EXCLUDED.dono";
+        return jdbcTemplate.update(sql, params(name).addValue("seconds", duration.toSeconds())) == 1;
+    }
+    
+    public void release(String name) {
+        jdbcTemplate.update("UPDATE agendamentos_concessoes SET valido_ate = now() " +
+                "WHERE nome = :name AND dono = :owner", params(name));
+    }
+    
+    private MapSqlParameterSource params(String name) {
+        return new MapSqlParameterSource()
+                .addValue("name", name)
+                .addValue("owner", owner);
+    }
+}
@@ -1,19 +1,43 @@
 package com.saldoreal.infrastructure.security;
 
+import lombok.AllArgsConstructor;
+import lombok.Getter;
 import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 
-public class UserPrincipal {
+import java.security.Principal;
+import java.util.List;
+
+@Getter
+@AllArgsConstructor
+public class UserPrincipal implements Principal {
     
-    public static Long getCurrentUserId() {
+    private static final List<GrantedAuthority> AUTHORITIES = List.of(new SimpleGrantedAuthority("ROLE_USER"));
+    
+    private final Long userId;
+    private final String email;
+    
+    @Override
+    public String getName() {
+        return email;
+    }
+    
+    public List<GrantedAuthority> getAuthorities() {
+        return AUTHORITIES;
+    }
+    
+    public static UserPrincipal getCurrent() {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        if (authentication != null && authentication.getPrincipal() instanceof org.springframework.security.core.userdetails.UserDetails) {
-            //String email = ((org.springframework.security.core.userdetails.UserDetails) authentication.getPrincipal()).getUsername();
-            // Em uma implementação real, você buscaria o ID do usuário pelo email
-            // Por enquanto, vamos usar o token JWT para obter o ID
-            return null; // Será obtido via JWT
+        if (authentication != null && authentication.getPrincipal() instanceof UserPrincipal principal) {
+            return principal;
         }
         return null;
     }
+    
+    public static Long getCurrentUserId() {
+        UserPrincipal principal = getCurrent();
+        return principal != null ? principal.getUserId() : null;
+    }
 }
-
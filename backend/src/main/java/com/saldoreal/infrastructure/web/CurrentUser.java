@@ -1,25 +1,11 @@
 package com.saldoreal.infrastructure.web;
 
-import com.saldoreal.security.JwtTokenProvider;
-import jakarta.servlet.http.HttpServletRequest;
-import org.springframework.stereotype.Component;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
 
-@Component
-public class CurrentUser {
-    
-    private final JwtTokenProvider tokenProvider;
-    
-    public CurrentUser(JwtTokenProvider tokenProvider) {
-        this.tokenProvider = tokenProvider;
-    }
-    
-    public Long getUserId(HttpServletRequest request) {
-        String authHeader = request.getHeader("Authorization");
-        if (authHeader != null && authHeader.startsWith("Bearer ")) {
-            String token = authHeader.substring(7);
-            return tokenProvider.getUserIdFromToken(token);
-        }
-        return null;
-    }
+@Target(ElementType.PARAMETER)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface CurrentUser {
 }
-
@@ -0,0 +1,30 @@
+package com.saldoreal.infrastructure.web;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.config.BeanFactoryPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+// Com spring.threads.virtual.enabled, o Spring Boot põe em threads virtuais as requisições do Tomcat,
+// o executor das tarefas assíncronas (exportações em streaming) e o agendador. Em Java anterior
+// ao 21 a opção seria ignorada em silêncio, e uma comparação de desempenho mediria o modo errado:
+// aqui a aplicação se recusa a subir, antes de criar qualquer outro bean.
+@Configuration
+@ConditionalOnProperty(name = "spring.threads.virtual.enabled", havingValue = "true")
+public class VirtualThreadsConfig {
+    
+    private static final Logger log = LoggerFactory.getLogger(VirtualThreadsConfig.class);
+    
+    @Bean
+    static BeanFactoryPostProcessor virtualThreadsCheck() {
+        return beanFactory -> {
+            if (Runtime.version().feature() < 21) {
+                throw new IllegalStateException("Threads virtuais exigem Java 21 ou superior (em uso: "
+                        + Runtime.version() + ")");
+            }
+            log.info("Requisições e tarefas assíncronas em threads virtuais");
+        };
+    }
+}
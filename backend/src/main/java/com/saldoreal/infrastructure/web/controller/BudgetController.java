@@ -0,0 +1,28 @@
+package com.saldoreal.infrastructure.web.controller;
+
+import com.saldoreal.application.dto.BudgetDTO;
+import com.saldoreal.application.service.BudgetService;
+import com.saldoreal.infrastructure.security.UserPrincipal;
+import com.saldoreal.infrastructure.web.CurrentUser;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/budgets")
+@CrossOrigin(origins = "*")
+public class BudgetController {
+    
+    private final BudgetService budgetService;
+    
+    public BudgetController(BudgetService budgetService) {
+        this.budgetService = budgetService;
+    }
+    
+    @GetMapping
+    public ResponseEntity<List<BudgetDTO>> findAll(@CurrentUser UserPrincipal user) {
+        List<BudgetDTO> budgets = budgetService.getBudgets(user.getUserId());
+        return ResponseEntity.ok(budgets);
+    }
+}
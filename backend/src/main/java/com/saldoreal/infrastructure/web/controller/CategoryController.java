@@ -2,8 +2,8 @@ package com.saldoreal.infrastructure.web.controller;
 
 import com.saldoreal.application.dto.CategoryDTO;
 import com.saldoreal.application.service.CategoryService;
+import com.saldoreal.infrastructure.security.UserPrincipal;
 import com.saldoreal.infrastructure.web.CurrentUser;
-import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -16,47 +16,40 @@ import java.util.List;
 public class CategoryController {
     
     private final CategoryService categoryService;
-    private final CurrentUser currentUser;
     
-    public CategoryController(CategoryService categoryService, CurrentUser currentUser) {
+    public CategoryController(CategoryService categoryService) {
         this.categoryService = categoryService;
-        this.currentUser = currentUser;
     }
     
     @PostMapping
-    public ResponseEntity<CategoryDTO> create(@Valid @RequestBody CategoryDTO dto, HttpServletRequest request) {
-        Long userId = currentUser.getUserId(request);
-        CategoryDTO created = categoryService.create(dto, userId);
+    public ResponseEntity<CategoryDTO> create(@Valid @RequestBody CategoryDTO dto, @CurrentUser UserPrincipal user) {
+        CategoryDTO created = categoryService.create(dto, user.getUserId());
         return ResponseEntity.ok(created);
     }
     
     @PutMapping("/{id}")
     public ResponseEntity<CategoryDTO> update(@PathVariable Long id,
                                             @Valid @RequestBody CategoryDTO dto,
-                                            HttpServletRequest request) {
-        Long userId = currentUser.getUserId(request);
-        CategoryDTO updated = categoryService.update(id, dto, userId);
+                                            @CurrentUser UserPrincipal user) {
+        CategoryDTO updated = categoryService.update(id, dto, user.getUserId());
         return ResponseEntity.ok(updated);
     }
     
     @DeleteMapping("/{id}")
-    public ResponseEntity<Void> delete(@PathVariable Long id, HttpServletRequest request) {
-        Long userId = currentUser.getUserId(request);
-        categoryService.delete(id, userId);
+    public ResponseEntity<Void> delete(@PathVariable Long id, @CurrentUser UserPrincipal user) {
+        categoryService.delete(id, user.getUserId());
         return ResponseEntity.noContent().build();
     }
     
     @GetMapping
-    public ResponseEntity<List<CategoryDTO>> findAll(HttpServletRequest request) {
-        Long userId = currentUser.getUserId(request);
-        List<CategoryDTO> categories = categoryService.findAll(userId);
+    public ResponseEntity<List<CategoryDTO>> findAll(@CurrentUser UserPrincipal user) {
+        List<CategoryDTO> categories = categoryService.findAll(user.getUserId());
         return ResponseEntity.ok(categories);
     }
     
     @GetMapping("/{id}")
-    public ResponseEntity<CategoryDTO> findById(@PathVariable Long id, HttpServletRequest request) {
-        Long userId = currentUser.getUserId(request);
-        CategoryDTO category = categoryService.findById(id, userId);
+    public ResponseEntity<CategoryDTO> findById(@PathVariable Long id, @CurrentUser UserPrincipal user) {
+        CategoryDTO category = categoryService.findById(id, user.getUserId());
         return ResponseEntity.ok(category);
     }
 }
@@ -2,28 +2,33 @@ package com.saldoreal.infrastructure.web.controller;
 
 import com.saldoreal.application.dto.DashboardDTO;
 import com.saldoreal.application.service.DashboardService;
+import com.saldoreal.infrastructure.security.UserPrincipal;
 import com.saldoreal.infrastructure.web.CurrentUser;
-import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDate;
+import java.time.YearMonth;
+
 @RestController
 @RequestMapping("/dashboard")
 @CrossOrigin(origins = "*")
 public class DashboardController {
     
     private final DashboardService dashboardService;
-    private final CurrentUser currentUser;
     
-    public DashboardController(DashboardService dashboardService, CurrentUser currentUser) {
+    public DashboardController(DashboardService dashboardService) {
         this.dashboardService = dashboardService;
-        this.currentUser = currentUser;
     }
     
     @GetMapping
-    public ResponseEntity<DashboardDTO> getDashboard(HttpServletRequest request) {
-        Long userId = currentUser.getUserId(request);
-        DashboardDTO dashboard = dashboardService.getDashboard(userId);
+    public ResponseEntity<DashboardDTO> getDashboard(
+            @RequestParam(required = false) @DateTimeFormat(pattern = "yyyy-MM") YearMonth month,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @CurrentUser UserPrincipal user) {
+        DashboardDTO dashboard = dashboardService.getDashboard(user.getUserId(), month, startDate, endDate);
         return ResponseEntity.ok(dashboard);
     }
 }
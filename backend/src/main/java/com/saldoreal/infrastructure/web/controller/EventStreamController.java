@@ -0,0 +1,42 @@
+package com.saldoreal.infrastructure.web.controller;
+
+import com.saldoreal.application.dto.EventsTokenDTO;
+import com.saldoreal.application.service.EventStreamService;
+import com.saldoreal.infrastructure.security.UserPrincipal;
+import com.saldoreal.infrastructure.web.CurrentUser;
+import com.saldoreal.security.JwtTokenProvider;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+@RestController
+@RequestMapping("/events")
+@CrossOrigin(origins = "*")
+public class EventStreamController {
+    
+    private final EventStreamService eventStreamService;
+    private final JwtTokenProvider tokenProvider;
+    
+    public EventStreamController(EventStreamService eventStreamService, JwtTokenProvider tokenProvider) {
+        this.eventStreamService = eventStreamService;
+        this.tokenProvider = tokenProvider;
+    }
+    
+    // Token curto para a URL do stream, pedido com o token de sessão no cabeçalho; cada
+    // reconexão pede um novo.
+    @PostMapping("/token")
+    public ResponseEntity<EventsTokenDTO> token(@CurrentUser UserPrincipal user) {
+        String token = tokenProvider.generateEventsToken(user.getEmail(), user.getUserId());
+        return ResponseEntity.ok(new EventsTokenDTO(token, tokenProvider.getEventsExpiration()));
+    }
+    
+    // Sem buffer em proxies (X-Accel-Buffering), para que cada evento chegue na hora.
+    @GetMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> stream(@CurrentUser UserPrincipal user) {
+        SseEmitter emitter = eventStreamService.subscribe(user.getUserId());
+        return ResponseEntity.ok()
+                .header("X-Accel-Buffering", "no")
+                .body(emitter);
+    }
+}
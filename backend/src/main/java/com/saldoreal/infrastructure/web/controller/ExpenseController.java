@@ -1,16 +1,33 @@
 package com.saldoreal.infrastructure.web.controller;
 
+import com.saldoreal.application.dto.CursorPageDTO;
+import com.saldoreal.application.dto.ExpenseBulkRequestDTO;
+import com.saldoreal.application.dto.ExpenseBulkResultDTO;
 import com.saldoreal.application.dto.ExpenseDTO;
 import com.saldoreal.application.dto.ExpenseFilterDTO;
+import com.saldoreal.application.dto.ExpenseSummaryDTO;
+import com.saldoreal.application.dto.ImportResultDTO;
+import com.saldoreal.application.exporter.ExportFormat;
+import com.saldoreal.application.importer.ImportFormat;
+import com.saldoreal.application.service.ExpenseExportService;
+import com.saldoreal.application.service.ExpenseImportService;
 import com.saldoreal.application.service.ExpenseService;
+import com.saldoreal.domain.repository.ExpenseGroupBy;
+import com.saldoreal.infrastructure.security.UserPrincipal;
 import com.saldoreal.infrastructure.web.CurrentUser;
-import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import org.springframework.data.domain.Page;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.math.BigDecimal;
+import java.nio.charset.Charset;
 
 @RestController
 @RequestMapping("/expenses")
@@ -18,55 +35,114 @@ import java.math.BigDecimal;
 public class ExpenseController {
     
     private final ExpenseService expenseService;
-    private final CurrentUser currentUser;
+    private final ExpenseImportService importService;
+    private final ExpenseExportService exportService;
     
-    public ExpenseController(ExpenseService expenseService, CurrentUser currentUser) {
+    public ExpenseController(ExpenseService expenseService,
+                             ExpenseImportService importService,
+                             ExpenseExportService exportService) {
         this.expenseService = expenseService;
-        this.currentUser = currentUser;
+        this.importService = importService;
+        this.exportService = exportService;
     }
     
     @PostMapping
-    public ResponseEntity<ExpenseDTO> create(@Valid @RequestBody ExpenseDTO dto, HttpServletRequest request) {
-        Long userId = currentUser.getUserId(request);
-        ExpenseDTO created = expenseService.create(dto, userId);
+    public ResponseEntity<ExpenseDTO> create(@Valid @RequestBody ExpenseDTO dto, @CurrentUser UserPrincipal user) {
+        ExpenseDTO created = expenseService.create(dto, user.getUserId());
         return ResponseEntity.ok(created);
     }
     
+    @PostMapping(value = "/import", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<ImportResultDTO> importFile(@RequestParam("file") MultipartFile file,
+                                                      @RequestParam(required = false) ImportFormat format,
+                                                      @RequestParam(required = false) Long categoryId,
+                                                      @RequestParam(defaultValue = "UTF-8") String charset,
+                                                      @CurrentUser UserPrincipal user) throws IOException {
+        ImportFormat fileFormat = format != null ? format : ImportFormat.fromFileName(file.getOriginalFilename());
+        try (InputStream in = file.getInputStream()) {
+            ImportResultDTO result = importService.importFile(in, fileFormat, Charset.forName(charset),
+                    categoryId, user.getUserId());
+            return ResponseEntity.ok(result);
+        }
+    }
+    
     @PutMapping("/{id}")
     public ResponseEntity<ExpenseDTO> update(@PathVariable Long id, 
                                             @Valid @RequestBody ExpenseDTO dto,
-                                            HttpServletRequest request) {
-        Long userId = currentUser.getUserId(request);
-        ExpenseDTO updated = expenseService.update(id, dto, userId);
+                                            @CurrentUser UserPrincipal user) {
+        ExpenseDTO updated = expenseService.update(id, dto, user.getUserId());
         return ResponseEntity.ok(updated);
     }
     
     @DeleteMapping("/{id}")
-    public ResponseEntity<Void> delete(@PathVariable Long id, HttpServletRequest request) {
-        Long userId = currentUser.getUserId(request);
-        expenseService.delete(id, userId);
+    public ResponseEntity<Void> delete(@PathVariable Long id, @CurrentUser UserPrincipal user) {
+        expenseService.delete(id, user.getUserId());
         return ResponseEntity.noContent().build();
     }
     
+    @PostMapping("/bulk-delete")
+    public ResponseEntity<ExpenseBulkResultDTO> deleteInBulk(@Valid @RequestBody ExpenseBulkRequestDTO request,
+                                                             @CurrentUser UserPrincipal user) {
+        ExpenseBulkResultDTO result = expenseService.deleteInBulk(request, user.getUserId());
+        return ResponseEntity.ok(result);
+    }
+    
+    @PatchMapping("/bulk")
+    public ResponseEntity<ExpenseBulkResultDTO> updateInBulk(@Valid @RequestBody ExpenseBulkRequestDTO request,
+                                                             @CurrentUser UserPrincipal user) {
+        ExpenseBulkResultDTO result = expenseService.updateInBulk(request, user.getUserId());
+        return ResponseEntity.ok(result);
+    }
+    
     @GetMapping
-    public ResponseEntity<Page<ExpenseDTO>> findAll(ExpenseFilterDTO filter, HttpServletRequest request) {
-        Long userId = currentUser.getUserId(request);
-        Page<ExpenseDTO> expenses = expenseService.findAll(filter, userId);
+    public ResponseEntity<Page<ExpenseDTO>> findAll(ExpenseFilterDTO filter, @CurrentUser UserPrincipal user) {
+        Page<ExpenseDTO> expenses = expenseService.findAll(filter, user.getUserId());
+        return ResponseEntity.ok(expenses);
+    }
+    
+    @GetMapping(params = "cursor")
+    public ResponseEntity<CursorPageDTO<ExpenseDTO>> findAllByCursor(ExpenseFilterDTO filter,
+                                                                     @CurrentUser UserPrincipal user) {
+        CursorPageDTO<ExpenseDTO> expenses = expenseService.findAllByCursor(filter, user.getUserId());
         return ResponseEntity.ok(expenses);
     }
     
+    @GetMapping("/search")
+    public ResponseEntity<Page<ExpenseDTO>> search(ExpenseFilterDTO filter, @CurrentUser UserPrincipal user) {
+        Page<ExpenseDTO> expenses = expenseService.search(filter, user.getUserId());
+        return ResponseEntity.ok(expenses);
+    }
+    
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> export(ExpenseFilterDTO filter,
+                                                        @RequestParam(defaultValue = "CSV") ExportFormat format,
+                                                        @CurrentUser UserPrincipal user) {
+        Long userId = user.getUserId();
+        StreamingResponseBody body = out -> exportService.export(filter, format, userId, out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(format.getContentType() + ";charset=UTF-8"))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"despesas." + format.getExtension() + "\"")
+                .body(body);
+    }
+    
     @GetMapping("/{id}")
-    public ResponseEntity<ExpenseDTO> findById(@PathVariable Long id, HttpServletRequest request) {
-        Long userId = currentUser.getUserId(request);
-        ExpenseDTO expense = expenseService.findById(id, userId);
+    public ResponseEntity<ExpenseDTO> findById(@PathVariable Long id, @CurrentUser UserPrincipal user) {
+        ExpenseDTO expense = expenseService.findById(id, user.getUserId());
         return ResponseEntity.ok(expense);
     }
     
     @GetMapping("/total")
-    public ResponseEntity<BigDecimal> getTotal(ExpenseFilterDTO filter, HttpServletRequest request) {
-        Long userId = currentUser.getUserId(request);
-        BigDecimal total = expenseService.getTotal(filter, userId);
+    public ResponseEntity<BigDecimal> getTotal(ExpenseFilterDTO filter, @CurrentUser UserPrincipal user) {
+        BigDecimal total = expenseService.getTotal(filter, user.getUserId());
         return ResponseEntity.ok(total);
     }
+    
+    @GetMapping("/summary")
+    public ResponseEntity<ExpenseSummaryDTO> getSummary(ExpenseFilterDTO filter,
+                                                        @RequestParam(required = false) ExpenseGroupBy groupBy,
+                                                        @CurrentUser UserPrincipal user) {
+        ExpenseSummaryDTO summary = expenseService.summarize(filter, groupBy, user.getUserId());
+        return ResponseEntity.ok(summary);
+    }
 }
-
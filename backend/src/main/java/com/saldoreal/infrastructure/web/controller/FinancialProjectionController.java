@@ -1,15 +1,25 @@
 package com.saldoreal.infrastructure.web.controller;
 
 import com.saldoreal.application.dto.FinancialProjectionDTO;
+import com.saldoreal.application.dto.ProjectionBatchRequestDTO;
+import com.saldoreal.application.dto.ProjectionBatchResultDTO;
+import com.saldoreal.application.dto.ProjectionGridDTO;
+import com.saldoreal.application.dto.ProjectionGridRequestDTO;
+import com.saldoreal.application.dto.ProjectionSolveRequestDTO;
+import com.saldoreal.application.dto.SimulationRequestDTO;
+import com.saldoreal.application.dto.SimulationResultDTO;
 import com.saldoreal.application.service.FinancialProjectionService;
+import com.saldoreal.application.service.MonteCarloSimulator;
+import com.saldoreal.infrastructure.security.UserPrincipal;
 import com.saldoreal.infrastructure.web.CurrentUser;
-import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
-import java.math.BigDecimal;
 import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
 
 @RestController
 @RequestMapping("/projections")
@@ -17,59 +27,75 @@ import java.util.List;
 public class FinancialProjectionController {
     
     private final FinancialProjectionService projectionService;
-    private final CurrentUser currentUser;
+    private final MonteCarloSimulator simulator;
     
-    public FinancialProjectionController(FinancialProjectionService projectionService, CurrentUser currentUser) {
+    public FinancialProjectionController(FinancialProjectionService projectionService,
+                                         MonteCarloSimulator simulator) {
         this.projectionService = projectionService;
-        this.currentUser = currentUser;
+        this.simulator = simulator;
     }
     
     @PostMapping
     public ResponseEntity<FinancialProjectionDTO> create(@Valid @RequestBody FinancialProjectionDTO dto,
-                                                        HttpServletRequest request) {
-        Long userId = currentUser.getUserId(request);
-        FinancialProjectionDTO created = projectionService.create(dto, userId);
+                                                        @CurrentUser UserPrincipal user) {
+        FinancialProjectionDTO created = projectionService.create(dto, user.getUserId());
         return ResponseEntity.ok(created);
     }
     
     @GetMapping
-    public ResponseEntity<List<FinancialProjectionDTO>> findAll(HttpServletRequest request) {
-        Long userId = currentUser.getUserId(request);
-        List<FinancialProjectionDTO> projections = projectionService.findAll(userId);
+    public ResponseEntity<List<FinancialProjectionDTO>> findAll(@CurrentUser UserPrincipal user) {
+        List<FinancialProjectionDTO> projections = projectionService.findAll(user.getUserId());
         return ResponseEntity.ok(projections);
     }
     
     @GetMapping("/{id}")
-    public ResponseEntity<FinancialProjectionDTO> findById(@PathVariable Long id, HttpServletRequest request) {
-        Long userId = currentUser.getUserId(request);
-        FinancialProjectionDTO projection = projectionService.findById(id, userId);
+    public ResponseEntity<FinancialProjectionDTO> findById(@PathVariable Long id, @CurrentUser UserPrincipal user) {
+        FinancialProjectionDTO projection = projectionService.findById(id, user.getUserId());
         return ResponseEntity.ok(projection);
     }
     
     @DeleteMapping("/{id}")
-    public ResponseEntity<Void> delete(@PathVariable Long id, HttpServletRequest request) {
-        Long userId = currentUser.getUserId(request);
-        projectionService.delete(id, userId);
+    public ResponseEntity<Void> delete(@PathVariable Long id, @CurrentUser UserPrincipal user) {
+        projectionService.delete(id, user.getUserId());
         return ResponseEntity.noContent().build();
     }
     
     @PostMapping("/calculate")
-    public ResponseEntity<FinancialProjectionDTO> calculate(@Valid @RequestBody FinancialProjectionDTO dto) {
-        FinancialProjectionDTO result = new FinancialProjectionDTO();
-        result.setInitialValue(dto.getInitialValue());
-        result.setMonthlyContribution(dto.getMonthlyContribution());
-        result.setInterestRate(dto.getInterestRate());
-        result.setPeriod(dto.getPeriod());
-        
-        BigDecimal futureValue = projectionService.calculateFutureValue(
-            dto.getInitialValue(),
-            dto.getMonthlyContribution(),
-            dto.getInterestRate(),
-            dto.getPeriod()
-        );
-        result.setFutureValue(futureValue);
-        
+    public ResponseEntity<FinancialProjectionDTO> calculate(@Valid @RequestBody FinancialProjectionDTO dto,
+                                                            @RequestParam(defaultValue = "false") boolean schedule) {
+        FinancialProjectionDTO result = projectionService.calculate(dto, schedule);
         return ResponseEntity.ok(result);
     }
+    
+    @PostMapping("/solve")
+    public ResponseEntity<FinancialProjectionDTO> solve(@Valid @RequestBody ProjectionSolveRequestDTO request) {
+        FinancialProjectionDTO result = projectionService.solve(request);
+        return ResponseEntity.ok(result);
+    }
+    
+    @PostMapping("/batch")
+    public ResponseEntity<ProjectionBatchResultDTO> calculateBatch(@Valid @RequestBody ProjectionBatchRequestDTO request) {
+        ProjectionBatchResultDTO result = projectionService.calculateBatch(request.getScenarios());
+        return ResponseEntity.ok(result);
+    }
+    
+    @PostMapping("/grid")
+    public ResponseEntity<ProjectionGridDTO> calculateGrid(@Valid @RequestBody ProjectionGridRequestDTO request) {
+        ProjectionGridDTO result = projectionService.calculateGrid(request);
+        return ResponseEntity.ok(result);
+    }
+    
+    @PostMapping("/simulate")
+    public ResponseEntity<SimulationResultDTO> simulate(@Valid @RequestBody SimulationRequestDTO request) {
+        SimulationResultDTO result = simulator.simulate(request);
+        return ResponseEntity.ok(result);
+    }
+    
+    // Pool de projeções sem vaga: recusa na hora, com a resposta escrita aqui mesmo.
+    @ExceptionHandler(RejectedExecutionException.class)
+    public ResponseEntity<Void> tooManyRequests() {
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .build();
+    }
 }
-
@@ -0,0 +1,67 @@
+package com.saldoreal.infrastructure.web.controller;
+
+import com.saldoreal.application.dto.CategoryDTO;
+import com.saldoreal.application.dto.DashboardDTO;
+import com.saldoreal.application.dto.ExpenseDTO;
+import com.saldoreal.application.dto.ExpenseFilterDTO;
+import com.saldoreal.application.dto.ExpenseSummaryDTO;
+import com.saldoreal.application.service.ReactiveReadService;
+import com.saldoreal.domain.repository.ExpenseGroupBy;
+import com.saldoreal.infrastructure.security.UserPrincipal;
+import com.saldoreal.infrastructure.web.CurrentUser;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+
+// O Spring MVC assina o Flux/Mono e libera a thread do Tomcat enquanto o banco responde.
+// Em JSON o Flux é reunido numa lista; em /expenses/stream (application/x-ndjson) as despesas
+// saem uma por linha, e a próxima só é pedida ao banco depois que a anterior foi escrita.
+@RestController
+@RequestMapping("/reactive")
+@CrossOrigin(origins = "*")
+@ConditionalOnProperty(name = "reactive.enabled", havingValue = "true")
+public class ReactiveReadController {
+    
+    private final ReactiveReadService readService;
+    
+    public ReactiveReadController(ReactiveReadService readService) {
+        this.readService = readService;
+    }
+    
+    @GetMapping(value = "/expenses", produces = MediaType.APPLICATION_JSON_VALUE)
+    public Flux<ExpenseDTO> findAll(ExpenseFilterDTO filter, @CurrentUser UserPrincipal user) {
+        return readService.findAll(filter, user.getUserId());
+    }
+    
+    @GetMapping(value = "/expenses/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<ExpenseDTO> stream(ExpenseFilterDTO filter, @CurrentUser UserPrincipal user) {
+        return readService.findAll(filter, user.getUserId());
+    }
+    
+    @GetMapping("/expenses/summary")
+    public Mono<ExpenseSummaryDTO> getSummary(ExpenseFilterDTO filter,
+                                              @RequestParam(required = false) ExpenseGroupBy groupBy,
+                                              @CurrentUser UserPrincipal user) {
+        return readService.summarize(filter, groupBy, user.getUserId());
+    }
+    
+    @GetMapping("/dashboard")
+    public Mono<DashboardDTO> getDashboard(
+            @RequestParam(required = false) @DateTimeFormat(pattern = "yyyy-MM") YearMonth month,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @CurrentUser UserPrincipal user) {
+        return readService.getDashboard(user.getUserId(), month, startDate, endDate);
+    }
+    
+    @GetMapping(value = "/categories", produces = MediaType.APPLICATION_JSON_VALUE)
+    public Flux<CategoryDTO> findCategories(@CurrentUser UserPrincipal user) {
+        return readService.findCategories(user.getUserId());
+    }
+}
@@ -0,0 +1,39 @@
+package com.saldoreal.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UserCache;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Component
+public class CaffeineUserCache implements UserCache {
+    
+    private final Cache<String, UserDetails> users;
+    
+    public CaffeineUserCache(@Value("${spring.security.user-cache.ttl:5m}") Duration ttl,
+                             @Value("${spring.security.user-cache.max-size:10000}") long maxSize) {
+        this.users = Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .maximumSize(maxSize)
+                .build();
+    }
+    
+    @Override
+    public UserDetails getUserFromCache(String username) {
+        return users.getIfPresent(username);
+    }
+    
+    @Override
+    public void putUserInCache(UserDetails user) {
+        users.put(user.getUsername(), user);
+    }
+    
+    @Override
+    public void removeUserFromCache(String username) {
+        users.invalidate(username);
+    }
+}
@@ -1,13 +1,16 @@
 package com.saldoreal.security;
 
+import com.saldoreal.infrastructure.security.UserPrincipal;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
@@ -19,25 +22,26 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     
     private final JwtTokenProvider tokenProvider;
     private final UserDetailsService userDetailsService;
+    private final boolean stateless;
     
-    public JwtAuthenticationFilter(JwtTokenProvider tokenProvider, UserDetailsService userDetailsService) {
+    public JwtAuthenticationFilter(JwtTokenProvider tokenProvider,
+                                   UserDetailsService userDetailsService,
+                                   @Value("${spring.security.jwt.stateless:true}") boolean stateless) {
         this.tokenProvider = tokenProvider;
         this.userDetailsService = userDetailsService;
+        this.stateless = stateless;
     }
     
     @Override
-    protected void doFilterInternal(HttpServletRequest request, 
-                                    HttpServletResponse response, 
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
                                     FilterChain filterChain) throws ServletException, IOException {
         
-        String token = getTokenFromRequest(request);
+        UserPrincipal principal = authenticate(request);
         
-        if (token != null && tokenProvider.validateToken(token)) {
-            String email = tokenProvider.getEmailFromToken(token);
-            UserDetails userDetails = userDetailsService.loadUserByUsername(email);
-            
-            UsernamePasswordAuthenticationToken authentication = 
-                new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
+        if (principal != null && (stateless || userStillExists(principal))) {
+            UsernamePasswordAuthenticationToken authentication =
+                new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities());
             authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
             
             SecurityContextHolder.getContext().setAuthentication(authentication);
@@ -46,12 +50,27 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
     }
     
-    private String getTokenFromRequest(HttpServletRequest request) {
+    private boolean userStillExists(UserPrincipal principal) {
+        try {
+            UserDetails userDetails = userDetailsService.loadUserByUsername(principal.getEmail());
+            return userDetails.isEnabled() && userDetails.isAccountNonLocked();
+        } catch (UsernameNotFoundException e) {
+            return false;
+        }
+    }
+    
+    private UserPrincipal authenticate(HttpServletRequest request) {
         String bearerToken = request.getHeader("Authorization");
         if (bearerToken != null && bearerToken.startsWith("Bearer ")) {
-            return bearerToken.substring(7);
+            return tokenProvider.authenticate(bearerToken.substring(7)).orElse(null);
+        }
+        // O EventSource do navegador não envia cabeçalhos: só no stream de eventos o token
+        // pode vir na URL, e só o de eventos (POST /events/token), que vale um minuto e não abre
+        // mais nada. O token de sessão nunca é aceito na URL.
+        if ("GET".equals(request.getMethod()) && "/events".equals(request.getServletPath())) {
+            String token = request.getParameter("access_token");
+            return token != null ? tokenProvider.authenticateEvents(token).orElse(null) : null;
         }
         return null;
     }
 }
-
@@ -1,71 +1,169 @@
 package com.saldoreal.security;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.saldoreal.infrastructure.security.UserPrincipal;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
 import java.nio.charset.StandardCharsets;
 import java.util.Date;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 
 @Component
 public class JwtTokenProvider {
     
-    @Value("${spring.security.jwt.secret}")
-    private String jwtSecret;
+    private static final String USER_ID_CLAIM = "userId";
+    private static final String SCOPE_CLAIM = "scope";
     
-    @Value("${spring.security.jwt.expiration}")
-    private long jwtExpiration;
+    // Único escopo restrito: o token curto que vai na URL do stream de eventos.
+    private static final String EVENTS_SCOPE = "events";
     
-    private SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(jwtSecret.getBytes(StandardCharsets.UTF_8));
+    private final SecretKey signingKey;
+    private final JwtParser parser;
+    private final long jwtExpiration;
+    private final long eventsExpiration;
+    
+    // Tokens já verificados: evita refazer o parse e o HMAC a cada requisição.
+    // Cada entrada expira junto com o próprio token.
+    private final Cache<String, VerifiedToken> verifiedTokens;
+    
+    // Tempo de authenticate por desfecho: acerto no cache, assinatura verificada ou token recusado.
+    private final Timer cachedTimer;
+    private final Timer verifiedTimer;
+    private final Timer rejectedTimer;
+    
+    public JwtTokenProvider(@Value("${spring.security.jwt.secret}") String jwtSecret,
+                            @Value("${spring.security.jwt.expiration}") long jwtExpiration,
+                            @Value("${spring.security.jwt.events-expiration:60000}") long eventsExpiration,
+                            @Value("${spring.security.jwt.cache-size:10000}") long cacheSize,
+                            MeterRegistry registry) {
+        this.signingKey = Keys.hmacShaKeyFor(jwtSecret.getBytes(StandardCharsets.UTF_8));
+        this.parser = Jwts.parser().verifyWith(signingKey).build();
+        this.jwtExpiration = jwtExpiration;
+        this.eventsExpiration = eventsExpiration;
+        this.verifiedTokens = Caffeine.newBuilder()
+                .maximumSize(cacheSize)
+                .expireAfter(new TokenExpiry())
+                .build();
+        this.cachedTimer = verificationTimer(registry, "cached");
+        this.verifiedTimer = verificationTimer(registry, "verified");
+        this.rejectedTimer = verificationTimer(registry, "rejected");
+    }
+    
+    private static Timer verificationTimer(MeterRegistry registry, String result) {
+        return Timer.builder("saldoreal.jwt.verification")
+                .description("Verificação de tokens JWT")
+                .tag("result", result)
+                .register(registry);
     }
     
     public String generateToken(String email, Long userId) {
+        return build(email, userId, null, jwtExpiration);
+    }
+    
+    // Token de vida curta que só abre o stream de eventos: é o único que pode ir na URL, onde
+    // acaba em logs e históricos, e não serve para nenhum outro endpoint.
+    public String generateEventsToken(String email, Long userId) {
+        return build(email, userId, EVENTS_SCOPE, eventsExpiration);
+    }
+    
+    public long getEventsExpiration() {
+        return eventsExpiration;
+    }
+    
+    private String build(String email, Long userId, String scope, long expiration) {
         Date now = new Date();
-        Date expiryDate = new Date(now.getTime() + jwtExpiration);
+        Date expiryDate = new Date(now.getTime() + expiration);
         
         return Jwts.builder()
                 .subject(email)
-                .claim("userId", userId)
+                .claim(USER_ID_CLAIM, userId)
+                .claim(SCOPE_CLAIM, scope)
                 .issuedAt(now)
                 .expiration(expiryDate)
-                .signWith(getSigningKey())
+                .signWith(signingKey)
                 .compact();
     }
     
-    public String getEmailFromToken(String token) {
-        Claims claims = Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
-        
-        return claims.getSubject();
+    // Só tokens de sessão; um token de eventos é recusado aqui.
+    public Optional<UserPrincipal> authenticate(String token) {
+        return authenticate(token, null);
     }
     
-    public Long getUserIdFromToken(String token) {
-        Claims claims = Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
+    public Optional<UserPrincipal> authenticateEvents(String token) {
+        return authenticate(token, EVENTS_SCOPE);
+    }
+    
+    private Optional<UserPrincipal> authenticate(String token, String scope) {
+        long start = System.nanoTime();
+        VerifiedToken cached = verifiedTokens.getIfPresent(token);
+        if (cached != null && !cached.isExpired(System.currentTimeMillis())) {
+            boolean allowed = Objects.equals(cached.scope(), scope);
+            (allowed ? cachedTimer : rejectedTimer).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return allowed ? Optional.of(cached.principal()) : Optional.empty();
+        }
         
-        return claims.get("userId", Long.class);
+        Optional<UserPrincipal> principal = verify(token, scope);
+        (principal.isPresent() ? verifiedTimer : rejectedTimer).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return principal;
     }
     
-    public boolean validateToken(String token) {
+    private Optional<UserPrincipal> verify(String token, String scope) {
+        Claims claims;
         try {
-            Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(token);
-            return true;
-        } catch (Exception e) {
-            return false;
+            claims = parser.parseSignedClaims(token).getPayload();
+        } catch (JwtException | IllegalArgumentException e) {
+            return Optional.empty();
+        }
+        
+        Long userId = claims.get(USER_ID_CLAIM, Long.class);
+        if (userId == null || claims.getSubject() == null) {
+            return Optional.empty();
+        }
+        
+        UserPrincipal principal = new UserPrincipal(userId, claims.getSubject());
+        String tokenScope = claims.get(SCOPE_CLAIM, String.class);
+        if (claims.getExpiration() != null) {
+            verifiedTokens.put(token, new VerifiedToken(principal, tokenScope, claims.getExpiration().getTime()));
+        }
+        return Objects.equals(tokenScope, scope) ? Optional.of(principal) : Optional.empty();
+    }
+    
+    private record VerifiedToken(UserPrincipal principal, String scope, long expiresAt) {
+        
+        boolean isExpired(long now) {
+            return now >= expiresAt;
+        }
+    }
+    
+    private static class TokenExpiry implements Expiry<String, VerifiedToken> {
+        
+        @Override
+        public long expireAfterCreate(String token, VerifiedToken value, long currentTime) {
+            long remaining = value.expiresAt() - System.currentTimeMillis();
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(remaining, 0));
+        }
+        
+        @Override
+        public long expireAfterUpdate(String token, VerifiedToken value, long currentTime, long currentDuration) {
+            return expireAfterCreate(token, value, currentTime);
+        }
+        
+        @Override
+        public long expireAfterRead(String token, VerifiedToken value, long currentTime, long currentDuration) {
+            return currentDuration;
         }
     }
 }
-
@@ -0,0 +1,107 @@
+package com.saldoreal.security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+// BCrypt fora das threads de requisição: poucas threads próprias e uma fila curta. Um pico de
+// logins ocupa só esse pool, e o excesso é recusado na hora (429) em vez de esperar na fila
+// enquanto as demais requisições disputam a CPU.
+@Component
+public class PasswordHasher {
+    
+    private final PasswordEncoder passwordEncoder;
+    private final ThreadPoolExecutor executor;
+    
+    // Hash de uma senha aleatória, com o mesmo custo dos reais: um email inexistente também
+    // passa por uma verificação completa, e o tempo de resposta não revela se ele existe.
+    private final String dummyHash;
+    
+    private final Timer matchesTimer;
+    private final Timer encodeTimer;
+    private final Timer waitTimer;
+    private final Counter rejectedCounter;
+    
+    public PasswordHasher(PasswordEncoder passwordEncoder,
+                          MeterRegistry registry,
+                          @Value("${auth.hashing.threads:0}") int threads,
+                          @Value("${auth.hashing.queue-size:64}") int queueSize) {
+        this.passwordEncoder = passwordEncoder;
+        int threadCount = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threadCount, threadCount, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueSize),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "senhas-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        this.dummyHash = passwordEncoder.encode(UUID.randomUUID().toString());
+        
+        this.matchesTimer = Timer.builder("saldoreal.auth.hashing")
+                .description("Duração do cálculo de hash de senha")
+                .tag("operation", "matches")
+                .register(registry);
+        this.encodeTimer = Timer.builder("saldoreal.auth.hashing")
+                .description("Duração do cálculo de hash de senha")
+                .tag("operation", "encode")
+                .register(registry);
+        this.waitTimer = Timer.builder("saldoreal.auth.hashing.wait")
+                .description("Espera na fila antes do cálculo de hash de senha")
+                .register(registry);
+        this.rejectedCounter = Counter.builder("saldoreal.auth.hashing.rejected")
+                .description("Pedidos de hash recusados com o pool cheio")
+                .register(registry);
+        Gauge.builder("saldoreal.auth.hashing.queue", executor, pool -> pool.getQueue().size())
+                .description("Pedidos de hash esperando na fila")
+                .register(registry);
+        Gauge.builder("saldoreal.auth.hashing.active", executor, ThreadPoolExecutor::getActiveCount)
+                .description("Threads calculando hash de senha")
+                .register(registry);
+    }
+    
+    // Sem usuário (encodedPassword nulo), compara com o hash fictício e devolve sempre false.
+    public CompletableFuture<Boolean> matches(String rawPassword, String encodedPassword) {
+        String hash = encodedPassword != null ? encodedPassword : dummyHash;
+        return submit(matchesTimer, () -> passwordEncoder.matches(rawPassword, hash) && encodedPassword != null);
+    }
+    
+    public CompletableFuture<String> encode(String rawPassword) {
+        return submit(encodeTimer, () -> passwordEncoder.encode(rawPassword));
+    }
+    
+    // Com o pool e a fila cheios, o futuro já volta com RejectedExecutionException.
+    private <T> CompletableFuture<T> submit(Timer timer, Supplier<T> task) {
+        long queuedAt = System.nanoTime();
+        try {
+            return CompletableFuture.supplyAsync(() -> {
+                waitTimer.record(System.nanoTime() - queuedAt, TimeUnit.NANOSECONDS);
+                return timer.record(task);
+            }, executor);
+        } catch (RejectedExecutionException e) {
+            rejectedCounter.increment();
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,26 @@
+package com.saldoreal.security;
+
+import com.saldoreal.application.event.UserChangedEvent;
+import org.springframework.security.core.userdetails.UserCache;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+// Só depois do commit: antes dele, uma consulta concorrente ainda leria a linha antiga e a
+// devolveria ao cache. O email anterior sai também, senão continuaria autenticando até o TTL.
+// Publicado fora de transação (o cadastro grava pelo save do repositório), o evento já vem
+// depois da gravação e é tratado na hora.
+@Component
+public class UserCacheEvictionListener {
+    
+    private final UserCache userCache;
+    
+    public UserCacheEvictionListener(UserCache userCache) {
+        this.userCache = userCache;
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        userCache.removeUserFromCache(event.previousEmail());
+        userCache.removeUserFromCache(event.email());
+    }
+}
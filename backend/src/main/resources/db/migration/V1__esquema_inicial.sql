@@ -0,0 +1,50 @@
+-- Esquema inicial, equivalente ao que o Hibernate criava com ddl-auto: update.
+-- Bancos já existentes são marcados nesta versão (baseline-on-migrate) e seguem a partir da V2;
+-- por isso tabelas novas (como o consolidado diário, na V7) não entram aqui.
+
+CREATE TABLE IF NOT EXISTS usuarios (
+    id         BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    email      VARCHAR(255) NOT NULL,
+    senha      VARCHAR(255) NOT NULL,
+    nome       VARCHAR(255) NOT NULL,
+    criado_em  TIMESTAMP(6) NOT NULL,
+    CONSTRAINT uk_usuarios_email UNIQUE (email)
+);
+
+CREATE TABLE IF NOT EXISTS categorias (
+    id             BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    nome           VARCHAR(255) NOT NULL,
+    limite_mensal  NUMERIC(10, 2),
+    cor            VARCHAR(7),
+    icone          VARCHAR(50),
+    usuario_id     BIGINT NOT NULL,
+    CONSTRAINT fk_categorias_usuario FOREIGN KEY (usuario_id) REFERENCES usuarios (id)
+);
+
+CREATE TABLE IF NOT EXISTS despesas (
+    id               BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    data             DATE NOT NULL,
+    descricao        VARCHAR(255) NOT NULL,
+    categoria_id     BIGINT NOT NULL,
+    valor            NUMERIC(10, 2) NOT NULL,
+    forma_pagamento  VARCHAR(50),
+    codigo_barras    VARCHAR(100),
+    recorrente       BOOLEAN NOT NULL,
+    observacoes      VARCHAR(500),
+    usuario_id       BIGINT NOT NULL,
+    criado_em        TIMESTAMP(6) NOT NULL,
+    CONSTRAINT fk_despesas_categoria FOREIGN KEY (categoria_id) REFERENCES categorias (id),
+    CONSTRAINT fk_despesas_usuario FOREIGN KEY (usuario_id) REFERENCES usuarios (id)
+);
+
+CREATE TABLE IF NOT EXISTS projecoes_financeiras (
+    id                   BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    valor_inicial        NUMERIC(10, 2) NOT NULL,
+    aporte_mensal        NUMERIC(10, 2) NOT NULL,
+    taxa_juros           NUMERIC(5, 2) NOT NULL,
+    periodo              INTEGER NOT NULL,
+    valor_futuro         NUMERIC(10, 2) NOT NULL,
+    usuario_id           BIGINT NOT NULL,
+    criado_em            TIMESTAMP(6) NOT NULL,
+    CONSTRAINT fk_projecoes_usuario FOREIGN KEY (usuario_id) REFERENCES usuarios (id)
+);
@@ -0,0 +1,17 @@
+-- Toda consulta filtra pelo usuário; as de despesas também por período e, no dashboard, por categoria.
+
+CREATE INDEX IF NOT EXISTS idx_despesas_usuario_data
+    ON despesas (usuario_id, data);
+
+CREATE INDEX IF NOT EXISTS idx_despesas_usuario_categoria_data
+    ON despesas (usuario_id, categoria_id, data);
+
+-- Verificação da chave estrangeira ao excluir uma categoria.
+CREATE INDEX IF NOT EXISTS idx_despesas_categoria
+    ON despesas (categoria_id);
+
+CREATE INDEX IF NOT EXISTS idx_categorias_usuario
+    ON categorias (usuario_id);
+
+CREATE INDEX IF NOT EXISTS idx_projecoes_usuario
+    ON projecoes_financeiras (usuario_id);
@@ -0,0 +1,8 @@
+-- A paginação por cursor ordena por (data, id) e compara a tupla com a última linha vista;
+-- com o id no índice, a página inteira sai de uma varredura do índice, sem ordenação.
+
+CREATE INDEX IF NOT EXISTS idx_despesas_usuario_data_id
+    ON despesas (usuario_id, data, id);
+
+-- O índice novo cobre todas as consultas que usavam o anterior.
+DROP INDEX IF EXISTS idx_despesas_usuario_data;
@@ -0,0 +1,17 @@
+-- As despesas passam a usar uma sequência com alocação em blocos de 50 (pooled) no Hibernate,
+-- o que permite agrupar os INSERTs em lotes JDBC. A coluna identity vira uma sequência comum,
+-- com o incremento igual ao allocationSize, para que o Hibernate a reconheça na validação.
+-- Inserções pelo default da coluna continuam funcionando, apenas deixando lacunas.
+
+ALTER TABLE despesas ALTER COLUMN id DROP IDENTITY IF EXISTS;
+
+-- Bancos antigos podem ter a coluna como bigserial, com uma sequência de mesmo nome.
+ALTER TABLE despesas ALTER COLUMN id DROP DEFAULT;
+DROP SEQUENCE IF EXISTS despesas_id_seq;
+
+CREATE SEQUENCE despesas_id_seq INCREMENT BY 50 OWNED BY despesas.id;
+
+-- O otimizador pooled usa os ids (valor - 49 .. valor]: o primeiro valor fica 50 acima do maior id.
+SELECT setval('despesas_id_seq', COALESCE((SELECT MAX(id) FROM despesas), 0) + 50, false);
+
+ALTER TABLE despesas ALTER COLUMN id SET DEFAULT nextval('despesas_id_seq');
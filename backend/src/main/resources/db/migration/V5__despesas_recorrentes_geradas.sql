@@ -0,0 +1,26 @@
+-- Ocorrências geradas a partir de despesas recorrentes. Cada uma aponta para a despesa de origem,
+-- e a chave única (origem, data) torna a geração idempotente: rodar de novo não duplica nada.
+-- Na origem, recorrencia_gerada_ate guarda a última data já gerada, para que uma ocorrência
+-- excluída pelo usuário não volte na próxima execução.
+
+ALTER TABLE despesas ADD COLUMN origem_recorrente_id BIGINT;
+ALTER TABLE despesas ADD COLUMN recorrencia_gerada_ate DATE;
+
+ALTER TABLE despesas ADD CONSTRAINT fk_despesas_origem_recorrente
+    FOREIGN KEY (origem_recorrente_id) REFERENCES despesas (id) ON DELETE SET NULL;
+
+-- Também atende a verificação da chave estrangeira ao excluir uma despesa de origem.
+CREATE UNIQUE INDEX idx_despesas_origem_recorrente_data
+    ON despesas (origem_recorrente_id, data) WHERE origem_recorrente_id IS NOT NULL;
+
+-- Percurso dos usuários com despesas recorrentes, em ordem de id, e leitura das origens de cada lote.
+CREATE INDEX idx_despesas_recorrentes_usuario
+    ON despesas (usuario_id) WHERE recorrente AND origem_recorrente_id IS NULL;
+
+-- Concessões com prazo para tarefas agendadas: só a instância que detém a linha executa a tarefa.
+-- O prazo é comparado com o relógio do banco, o mesmo para todas as instâncias.
+CREATE TABLE agendamentos_concessoes (
+    nome        VARCHAR(100) PRIMARY KEY,
+    dono        VARCHAR(200) NOT NULL,
+    valido_ate  TIMESTAMP WITH TIME ZONE NOT NULL
+);
@@ -0,0 +1,20 @@
+-- Busca textual em descrição e observações, sem diferenciar acentos, com o dicionário português.
+-- Extensões confiáveis: o dono do banco pode instalá-las sem ser superusuário (PostgreSQL 13+).
+CREATE EXTENSION IF NOT EXISTS unaccent;
+CREATE EXTENSION IF NOT EXISTS btree_gin;
+
+-- unaccent() é STABLE (depende do search_path); esta versão fixa o dicionário e pode ser
+-- declarada IMMUTABLE, o que a coluna gerada e o índice exigem.
+CREATE OR REPLACE FUNCTION f_unaccent(texto TEXT) RETURNS TEXT
+    LANGUAGE sql IMMUTABLE PARALLEL SAFE STRICT
+    AS $$ SELECT public.unaccent('public.unaccent'::regdictionary, texto) $$;
+
+-- Descrição com peso maior que observações na ordenação por relevância.
+ALTER TABLE despesas ADD COLUMN busca TSVECTOR GENERATED ALWAYS AS (
+    setweight(to_tsvector('portuguese'::regconfig, f_unaccent(descricao)), 'A') ||
+    setweight(to_tsvector('portuguese'::regconfig, f_unaccent(COALESCE(observacoes, ''))), 'B')
+) STORED;
+
+-- Com btree_gin, o usuário entra no próprio índice: a busca só percorre as despesas dele.
+CREATE INDEX idx_despesas_usuario_busca
+    ON despesas USING GIN (usuario_id, busca);
@@ -0,0 +1,23 @@
+-- Consolidado diário por usuário e categoria, lido pelo dashboard. Fica numa migração própria
+-- porque bancos vindos do antigo ddl-auto: update são marcados na V1 e não a executam.
+-- Nesses bancos a tabela nasce vazia: o preenchimento abaixo soma as despesas já existentes.
+
+CREATE TABLE IF NOT EXISTS despesas_totais_diarios (
+    id            BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    usuario_id    BIGINT NOT NULL,
+    ano           INTEGER NOT NULL,
+    mes           INTEGER NOT NULL,
+    dia           INTEGER NOT NULL,
+    categoria_id  BIGINT NOT NULL,
+    total         NUMERIC(14, 2) NOT NULL,
+    quantidade    INTEGER NOT NULL,
+    CONSTRAINT uk_despesas_totais_diarios UNIQUE (usuario_id, ano, mes, dia, categoria_id)
+);
+
+-- Dias já consolidados ficam como estão.
+INSERT INTO despesas_totais_diarios (usuario_id, ano, mes, dia, categoria_id, total, quantidade)
+SELECT usuario_id, EXTRACT(YEAR FROM data), EXTRACT(MONTH FROM data), EXTRACT(DAY FROM data),
+       categoria_id, SUM(valor), COUNT(*)
+FROM despesas
+GROUP BY usuario_id, data, categoria_id
+ON CONFLICT (usuario_id, ano, mes, dia, categoria_id) DO NOTHING;
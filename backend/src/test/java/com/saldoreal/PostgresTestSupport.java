@@ -0,0 +1,69 @@
+package com.saldoreal;
+
+import org.junit.jupiter.api.extension.ConditionEvaluationResult;
+import org.junit.jupiter.api.extension.ExecutionCondition;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.DockerClientFactory;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+// Base dos testes que precisam do PostgreSQL de verdade: busca textual, extensões e planos de
+// consulta não existem num banco embutido. Sobe um contêiner do Testcontainers, compartilhado por
+// todas as classes; com -Dtest.database.url usa um banco já existente e vazio (as migrações do
+// Flyway rodam nele). Sem Docker e sem banco configurado, os testes ficam de fora, a menos que
+// -Dtest.database.required=true (o modo da CI) exija o banco: aí falham em vez de sumir do relatório.
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties = {
+    "recurring.enabled=false",
+    "spring.jpa.show-sql=false",
+    "logging.level.com.saldoreal=INFO",
+    "logging.level.org.springframework.security=INFO"
+})
+@ExtendWith(PostgresTestSupport.RequiresDatabase.class)
+public abstract class PostgresTestSupport {
+    
+    private static final String DATABASE_URL = System.getProperty("test.database.url");
+    private static final boolean DATABASE_REQUIRED = Boolean.getBoolean("test.database.required");
+    
+    private static PostgreSQLContainer<?> postgres;
+    
+    @DynamicPropertySource
+    static void database(DynamicPropertyRegistry registry) {
+        if (DATABASE_URL != null) {
+            registry.add("spring.datasource.url", () -> DATABASE_URL);
+            registry.add("spring.datasource.username", () -> System.getProperty("test.database.username", "postgres"));
+            registry.add("spring.datasource.password", () -> System.getProperty("test.database.password", "postgres"));
+            return;
+        }
+        PostgreSQLContainer<?> container = container();
+        registry.add("spring.datasource.url", container::getJdbcUrl);
+        registry.add("spring.datasource.username", container::getUsername);
+        registry.add("spring.datasource.password", container::getPassword);
+    }
+    
+    // Encerrado pelo Ryuk do Testcontainers ao fim da JVM.
+    private static synchronized PostgreSQLContainer<?> container() {
+        if (postgres == null) {
+            postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+            postgres.start();
+        }
+        return postgres;
+    }
+    
+    // Avaliada antes de o contexto do Spring subir, que já precisaria do banco.
+    static class RequiresDatabase implements ExecutionCondition {
+        
+        @Override
+        public ConditionEvaluationResult evaluateExecutionCondition(ExtensionContext context) {
+            if (DATABASE_URL != null || DockerClientFactory.instance().isDockerAvailable()) {
+                return ConditionEvaluationResult.enabled("PostgreSQL disponível");
+            }
+            if (DATABASE_REQUIRED) {
+                throw new IllegalStateException("test.database.required=true, mas não há Docker nem -Dtest.database.url");
+            }
+            return ConditionEvaluationResult.disabled("Sem Docker e sem -Dtest.database.url");
+        }
+    }
+}
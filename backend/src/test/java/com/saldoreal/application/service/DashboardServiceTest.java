@@ -0,0 +1,70 @@
+package com.saldoreal.application.service;
+
+import com.saldoreal.application.dto.DashboardDTO;
+import com.saldoreal.domain.repository.DashboardRow;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class DashboardServiceTest {
+    
+    private final DashboardService service = new DashboardService(null, Duration.ofMinutes(10), 100);
+    
+    private final DashboardService.DashboardKey key = DashboardService.key(1L, YearMonth.of(2025, 3), null, null);
+    
+    @Test
+    void loaderThatThrowsFailsTheFutureAndLeavesNothingCached() {
+        CompletableFuture<DashboardDTO> failed = service.getDashboardAsync(key, k -> {
+            throw new IllegalStateException("sem conexão");
+        });
+        
+        assertThat(failed).isCompletedExceptionally();
+        assertThat(service.getDashboardAsync(key, k -> CompletableFuture.completedFuture(List.of())))
+                .succeedsWithin(1, TimeUnit.SECONDS);
+    }
+    
+    @Test
+    void loaderThatThrowsAnErrorFailsTheFutureAndLeavesNothingCached() {
+        CompletableFuture<DashboardDTO> failed = service.getDashboardAsync(key, k -> {
+            throw new StackOverflowError();
+        });
+        
+        assertThat(failed).isCompletedExceptionally();
+        assertThat(service.getDashboardAsync(key, k -> CompletableFuture.completedFuture(List.of())))
+                .succeedsWithin(1, TimeUnit.SECONDS);
+    }
+    
+    @Test
+    void rowsThatCannotBeAssembledFailTheFuture() {
+        DashboardRow row = mock(DashboardRow.class);
+        when(row.getTipo()).thenThrow(new IllegalStateException("linha inválida"));
+        
+        CompletableFuture<DashboardDTO> failed = service.getDashboardAsync(key,
+                k -> CompletableFuture.completedFuture(List.of(row)));
+        
+        assertThat(failed).isCompletedExceptionally();
+        assertThat(service.getDashboardAsync(key, k -> CompletableFuture.completedFuture(List.of())))
+                .succeedsWithin(1, TimeUnit.SECONDS);
+    }
+    
+    @Test
+    void assemblyThatThrowsAnErrorFailsTheFuture() {
+        DashboardRow row = mock(DashboardRow.class);
+        when(row.getTipo()).thenThrow(new AssertionError("linha inválida"));
+        
+        CompletableFuture<DashboardDTO> failed = service.getDashboardAsync(key,
+                k -> CompletableFuture.completedFuture(List.of(row)));
+        
+        assertThat(failed).isCompletedExceptionally();
+        assertThat(service.getDashboardAsync(key, k -> CompletableFuture.completedFuture(List.of())))
+                .succeedsWithin(1, TimeUnit.SECONDS);
+    }
+}
@@ -0,0 +1,85 @@
+package com.saldoreal.application.service;
+
+import com.saldoreal.application.dto.ProjectionGridDTO;
+import com.saldoreal.application.dto.ProjectionGridRequestDTO;
+import com.saldoreal.application.dto.ProjectionGridRequestDTO.DecimalRange;
+import com.saldoreal.application.dto.ProjectionGridRequestDTO.PeriodRange;
+import com.saldoreal.application.dto.ProjectionGridRequestDTO.RateRange;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// Os três eixos da grade seguem a mesma regra: sem passo, um único valor; fim diferente do
+// início exige passo, seja a faixa de taxas, de prazos ou de aportes.
+class FinancialProjectionServiceTest {
+    
+    private final ProjectionExecutor executor = new ProjectionExecutor(new SimpleMeterRegistry(), 1, 4);
+    private final FinancialProjectionService service =
+            new FinancialProjectionService(null, null, new ProjectionEngine(100), executor);
+    
+    @AfterEach
+    void shutdown() {
+        executor.shutdown();
+    }
+    
+    @Test
+    void rangesWithoutStepHaveASingleValue() {
+        ProjectionGridDTO grid = service.calculateGrid(request(
+                new RateRange(new BigDecimal("12"), new BigDecimal("12"), null),
+                new PeriodRange(24, null, null),
+                new DecimalRange(new BigDecimal("100"), null, null)));
+        
+        assertThat(grid.getInterestRates()).containsExactly(new BigDecimal("12"));
+        assertThat(grid.getPeriods()).containsExactly(24);
+        assertThat(grid.getMonthlyContributions()).containsExactly(new BigDecimal("100"));
+    }
+    
+    @Test
+    void rangesWithStepIncludeBothEnds() {
+        ProjectionGridDTO grid = service.calculateGrid(request(
+                new RateRange(new BigDecimal("6"), new BigDecimal("12"), new BigDecimal("3")),
+                new PeriodRange(12, 36, 12),
+                new DecimalRange(new BigDecimal("100"), new BigDecimal("200"), new BigDecimal("100"))));
+        
+        assertThat(grid.getInterestRates()).containsExactly(new BigDecimal("6"), new BigDecimal("9"), new BigDecimal("12"));
+        assertThat(grid.getPeriods()).containsExactly(12, 24, 36);
+        assertThat(grid.getMonthlyContributions()).containsExactly(new BigDecimal("100"), new BigDecimal("200"));
+    }
+    
+    @Test
+    void periodRangeWithoutStepRejectsDifferentEnds() {
+        assertThatThrownBy(() -> service.calculateGrid(request(
+                new RateRange(new BigDecimal("12"), null, null),
+                new PeriodRange(12, 120, null),
+                new DecimalRange(new BigDecimal("100"), null, null))))
+                .hasMessage("Informe o passo da faixa quando o fim for diferente do início");
+    }
+    
+    @Test
+    void decimalRangeWithoutStepRejectsDifferentEnds() {
+        assertThatThrownBy(() -> service.calculateGrid(request(
+                new RateRange(new BigDecimal("6"), new BigDecimal("12"), null),
+                new PeriodRange(12, null, null),
+                new DecimalRange(new BigDecimal("100"), null, null))))
+                .hasMessage("Informe o passo da faixa quando o fim for diferente do início");
+        assertThatThrownBy(() -> service.calculateGrid(request(
+                new RateRange(new BigDecimal("6"), null, null),
+                new PeriodRange(12, null, null),
+                new DecimalRange(new BigDecimal("100"), new BigDecimal("500"), null))))
+                .hasMessage("Informe o passo da faixa quando o fim for diferente do início");
+    }
+    
+    private static ProjectionGridRequestDTO request(RateRange rates, PeriodRange periods, DecimalRange contributions) {
+        ProjectionGridRequestDTO request = new ProjectionGridRequestDTO();
+        request.setInitialValue(new BigDecimal("1000"));
+        request.setInterestRate(rates);
+        request.setPeriod(periods);
+        request.setMonthlyContribution(contributions);
+        return request;
+    }
+}
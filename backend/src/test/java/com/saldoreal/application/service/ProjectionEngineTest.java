@@ -0,0 +1,95 @@
+package com.saldoreal.application.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// A forma fechada tem de dar, ao centavo, o mesmo valor futuro do cálculo mês a mês que ela
+// substituiu: a mesma taxa mensal arredondada a 6 casas, aplicada período vezes, sem arredondar
+// nada no caminho.
+class ProjectionEngineTest {
+    
+    @ParameterizedTest(name = "P={0} C={1} taxa={2}% n={3}")
+    @CsvSource({
+        // taxa zero: só soma os aportes
+        "1000, 100, 0, 12",
+        "0, 250.50, 0, 360",
+        "1000, 100, 0.00, 1200",
+        // aporte zero: só juros compostos sobre o valor inicial
+        "1000, 0, 12, 12",
+        "50000, 0, 8.5, 600",
+        "0.01, 0, 99.99, 1200",
+        // um único mês
+        "1000, 100, 12, 1",
+        "0, 100, 7.25, 1",
+        "123456.78, 0, 0.01, 1",
+        // prazos longos
+        "1000, 500, 10, 360",
+        "0, 1000, 6, 600",
+        "25000, 1500, 13.75, 1200",
+        "1, 1, 1000, 240",
+        // limites da API: crescimento com ~317 casas inteiras
+        "1, 1, 1000, 1200",
+        "1000000, 100000, 1000, 1200",
+        // casos comuns
+        "5000, 300, 0.5, 48",
+        "10000, 750.33, 11.11, 120",
+        "0, 0, 12, 120",
+    })
+    void closedFormMatchesMonthlyLoop(BigDecimal initialValue, BigDecimal monthlyContribution,
+                                      BigDecimal interestRate, int period) {
+        BigDecimal expected = iterative(initialValue, monthlyContribution, interestRate, period);
+        
+        assertThat(ProjectionEngine.computeFutureValue(initialValue, monthlyContribution, interestRate, period))
+                .isEqualByComparingTo(expected);
+        assertThat(new ProjectionEngine(100).futureValue(initialValue, monthlyContribution, interestRate, period))
+                .isEqualByComparingTo(expected);
+    }
+    
+    // Valores equivalentes (10 e 10.00) caem na mesma entrada do cache e dão o mesmo resultado.
+    @Test
+    void memoizedValueIgnoresScale() {
+        ProjectionEngine engine = new ProjectionEngine(100);
+        BigDecimal first = engine.futureValue(new BigDecimal("1000"), new BigDecimal("10"), new BigDecimal("12"), 24);
+        BigDecimal second = engine.futureValue(new BigDecimal("1000.00"), new BigDecimal("10.0"), new BigDecimal("12.000"), 24);
+        
+        assertThat(second).isEqualByComparingTo(first)
+                .isEqualByComparingTo(iterative(new BigDecimal("1000"), new BigDecimal("10"), new BigDecimal("12"), 24));
+    }
+    
+    // O cronograma é em double, só para exibição, mas o último saldo tem de bater ao centavo.
+    @ParameterizedTest(name = "P={0} C={1} taxa={2}% n={3}")
+    @CsvSource({
+        "1000, 100, 0, 12",
+        "1000, 100, 12, 1",
+        "1000, 500, 10, 360",
+        "10000, 750.33, 11.11, 120",
+    })
+    void scheduleEndsAtFutureValue(BigDecimal initialValue, BigDecimal monthlyContribution,
+                                   BigDecimal interestRate, int period) {
+        double[] balances = ProjectionEngine.schedule(initialValue, monthlyContribution, interestRate, period).getBalance();
+        
+        assertThat(balances).hasSize(period);
+        assertThat(BigDecimal.valueOf(balances[period - 1]))
+                .isEqualByComparingTo(iterative(initialValue, monthlyContribution, interestRate, period));
+    }
+    
+    // O cálculo original, mês a mês, em BigDecimal exato.
+    private static BigDecimal iterative(BigDecimal initialValue, BigDecimal monthlyContribution,
+                                        BigDecimal interestRate, int period) {
+        BigDecimal monthlyRate = interestRate.divide(new BigDecimal("100"), 6, RoundingMode.HALF_UP)
+                .divide(new BigDecimal("12"), 6, RoundingMode.HALF_UP);
+        
+        BigDecimal futureValue = initialValue;
+        for (int i = 0; i < period; i++) {
+            futureValue = futureValue.multiply(BigDecimal.ONE.add(monthlyRate))
+                    .add(monthlyContribution);
+        }
+        return futureValue.setScale(2, RoundingMode.HALF_UP);
+    }
+}
@@ -0,0 +1,262 @@
+package com.saldoreal.application.service;
+
+import com.saldoreal.PostgresTestSupport;
+import com.saldoreal.application.dto.CategoryDTO;
+import com.saldoreal.application.dto.ExpenseBulkRequestDTO;
+import com.saldoreal.application.dto.ExpenseDTO;
+import com.saldoreal.application.dto.ExpenseFilterDTO;
+import com.saldoreal.application.dto.FinancialProjectionDTO;
+import com.saldoreal.domain.model.User;
+import com.saldoreal.domain.repository.ExpenseGroupBy;
+import com.saldoreal.domain.repository.ExpenseRepository;
+import com.saldoreal.domain.repository.RecurringOccurrence;
+import jakarta.persistence.EntityManager;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Número exato de comandos SQL que cada operação dos serviços envia ao banco: um N+1 ou um
+// SELECT de dono a mais quebra o build. A contagem é feita no DataSource, então vale tanto para o
+// Hibernate quanto para o SQL do JdbcTemplate. Cada teste roda numa transação desfeita ao final.
+@Transactional
+class ServiceQueryCountTest extends PostgresTestSupport {
+    
+    @Autowired
+    private ExpenseService expenseService;
+    
+    @Autowired
+    private CategoryService categoryService;
+    
+    @Autowired
+    private FinancialProjectionService projectionService;
+    
+    @Autowired
+    private ExpenseRepository expenseRepository;
+    
+    @Autowired
+    private EntityManager entityManager;
+    
+    @Autowired
+    private StatementCounter counter;
+    
+    private Long userId;
+    
+    @BeforeEach
+    void createUser() {
+        User user = new User();
+        user.setEmail("verificacao-sql-" + System.nanoTime() + "@saldoreal.invalid");
+        user.setPassword("-");
+        user.setName("Verificação de SQL");
+        entityManager.persist(user);
+        userId = user.getId();
+    }
+    
+    @Test
+    void categoryOperations() {
+        CategoryDTO category = statements("CategoryService.create", 1,
+                () -> categoryService.create(category("Mercado"), userId));
+        statements("CategoryService.findById", 1, () -> categoryService.findById(category.getId(), userId));
+        statements("CategoryService.update", 2,
+                () -> categoryService.update(category.getId(), category("Supermercado"), userId));
+        statements("CategoryService.findAll", 1, () -> categoryService.findAll(userId));
+    }
+    
+    @Test
+    void expenseOperations() {
+        Long categoryId = categoryService.create(category("Mercado"), userId).getId();
+        
+        // A primeira inclusão reserva o bloco de ids da sequência; as seguintes não vão ao banco para isso.
+        expenseService.create(expense(categoryId, 1), userId);
+        ExpenseDTO expense = statements("ExpenseService.create", 3,
+                () -> expenseService.create(expense(categoryId, 2), userId));
+        for (int day = 3; day <= 10; day++) {
+            expenseService.create(expense(categoryId, day), userId);
+        }
+        statements("ExpenseService.findById", 1, () -> expenseService.findById(expense.getId(), userId));
+        statements("ExpenseService.update", 6,
+                () -> expenseService.update(expense.getId(), expense(categoryId, 11), userId));
+        // Menos linhas que o tamanho da página: a listagem dispensa o COUNT.
+        statements("ExpenseService.findAll", 1, () -> expenseService.findAll(new ExpenseFilterDTO(), userId));
+        statements("ExpenseService.delete", 4, () -> {
+            expenseService.delete(expense.getId(), userId);
+            return null;
+        });
+    }
+    
+    @Test
+    void expenseAggregates() {
+        Long categoryId = categoryService.create(category("Mercado"), userId).getId();
+        for (int day = 1; day <= 5; day++) {
+            expenseService.create(expense(categoryId, day), userId);
+        }
+        
+        statements("ExpenseService.getTotal", 1, () -> expenseService.getTotal(new ExpenseFilterDTO(), userId));
+        for (ExpenseGroupBy groupBy : ExpenseGroupBy.values()) {
+            statements("ExpenseService.summarize " + groupBy, 1,
+                    () -> expenseService.summarize(new ExpenseFilterDTO(), groupBy, userId));
+        }
+    }
+    
+    // Alteração e exclusão em massa: um comando cada, que já ajusta o consolidado diário,
+    // mais a checagem da categoria nova quando ela muda.
+    @Test
+    void bulkOperations() {
+        Long categoryId = categoryService.create(category("Mercado"), userId).getId();
+        Long otherCategoryId = categoryService.create(category("Farmácia"), userId).getId();
+        for (int day = 1; day <= 5; day++) {
+            expenseService.create(expense(categoryId, day), userId);
+        }
+        ExpenseFilterDTO filter = new ExpenseFilterDTO();
+        filter.setStartDate(LocalDate.of(2025, 1, 1));
+        
+        ExpenseBulkRequestDTO update = new ExpenseBulkRequestDTO();
+        update.setFilter(filter);
+        update.setCategoryId(otherCategoryId);
+        statements("ExpenseService.updateInBulk", 2, () -> expenseService.updateInBulk(update, userId));
+        
+        ExpenseBulkRequestDTO delete = new ExpenseBulkRequestDTO();
+        delete.setFilter(filter);
+        statements("ExpenseService.deleteInBulk", 1, () -> expenseService.deleteInBulk(delete, userId));
+    }
+    
+    // O lote de usuários do gerador de recorrências: ocorrências, marcação das origens e
+    // consolidado num único comando, qualquer que seja o número de meses em atraso.
+    @Test
+    void recurringGeneration() {
+        Long categoryId = categoryService.create(category("Aluguel"), userId).getId();
+        ExpenseDTO rent = expense(categoryId, 5);
+        rent.setRecurring(true);
+        expenseService.create(rent, userId);
+        
+        LocalDate today = LocalDate.of(2025, 6, 30);
+        List<RecurringOccurrence> occurrences = statements("ExpenseRepository.generateRecurring", 1,
+                () -> expenseRepository.generateRecurring(List.of(userId), today, today.minusMonths(12)));
+        assertThat(occurrences).hasSize(5);
+    }
+    
+    @Test
+    void projectionOperations() {
+        FinancialProjectionDTO projection = statements("FinancialProjectionService.create", 1,
+                () -> projectionService.create(projection(), userId));
+        statements("FinancialProjectionService.findById", 1,
+                () -> projectionService.findById(projection.getId(), userId));
+        statements("FinancialProjectionService.findAll", 1, () -> projectionService.findAll(userId));
+        statements("FinancialProjectionService.delete", 1, () -> {
+            projectionService.delete(projection.getId(), userId);
+            return null;
+        });
+    }
+    
+    // Conta do início da chamada até o flush, com o contexto de persistência vazio antes e depois,
+    // para que nada venha do cache de primeiro nível nem fique para a próxima operação.
+    private <T> T statements(String operation, int expected, Supplier<T> call) {
+        entityManager.flush();
+        entityManager.clear();
+        counter.start();
+        T result;
+        int statements;
+        try {
+            result = call.get();
+            entityManager.flush();
+        } finally {
+            statements = counter.stop();
+            entityManager.clear();
+        }
+        assertThat(statements).as("comandos SQL de %s", operation).isEqualTo(expected);
+        return result;
+    }
+    
+    private static CategoryDTO category(String name) {
+        CategoryDTO dto = new CategoryDTO();
+        dto.setName(name);
+        dto.setColor("#22c55e");
+        return dto;
+    }
+    
+    private static ExpenseDTO expense(Long categoryId, int day) {
+        ExpenseDTO dto = new ExpenseDTO();
+        dto.setDate(LocalDate.of(2025, 1, day));
+        dto.setDescription("Despesa " + day);
+        dto.setCategoryId(categoryId);
+        dto.setAmount(new BigDecimal("10.00").add(BigDecimal.valueOf(day)));
+        dto.setPaymentMethod("PIX");
+        return dto;
+    }
+    
+    private static FinancialProjectionDTO projection() {
+        FinancialProjectionDTO dto = new FinancialProjectionDTO();
+        dto.setInitialValue(new BigDecimal("1000.00"));
+        dto.setMonthlyContribution(new BigDecimal("100.00"));
+        dto.setInterestRate(new BigDecimal("10"));
+        dto.setPeriod(12);
+        return dto;
+    }
+    
+    @TestConfiguration
+    static class CounterConfig {
+        
+        @Bean
+        StatementCounter statementCounter() {
+            return new StatementCounter();
+        }
+        
+        @Bean
+        static BeanPostProcessor countingDataSource(ObjectProvider<StatementCounter> counter) {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    if (bean instanceof DataSource dataSource) {
+                        return ProxyDataSourceBuilder.create(dataSource).listener(counter.getObject()).build();
+                    }
+                    return bean;
+                }
+            };
+        }
+    }
+    
+    // Conta as execuções (idas ao banco) feitas na thread do teste entre start() e stop():
+    // um lote JDBC conta uma vez.
+    static class StatementCounter implements QueryExecutionListener {
+        
+        private final ThreadLocal<int[]> count = new ThreadLocal<>();
+        
+        void start() {
+            count.set(new int[1]);
+        }
+        
+        int stop() {
+            int[] current = count.get();
+            count.remove();
+            return current != null ? current[0] : 0;
+        }
+        
+        @Override
+        public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        }
+        
+        @Override
+        public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+            int[] current = count.get();
+            if (current != null) {
+                current[0]++;
+            }
+        }
+    }
+}
@@ -0,0 +1,246 @@
+package com.saldoreal.domain.repository;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.saldoreal.PostgresTestSupport;
+import com.saldoreal.application.dto.ExpenseFilterDTO;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.fail;
+
+// Os planos das consultas de despesas, com o SQL e os parâmetros exatamente como o repositório os
+// envia: cada comando é capturado no DataSource e repetido com EXPLAIN, sobre um volume de dados
+// em que uma varredura sequencial seria a escolha errada. Nenhum deles pode varrer despesas ou o
+// consolidado diário inteiros. Os dados são gravados uma vez para a classe e removidos no final.
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ExpenseQueryPlanTest extends PostgresTestSupport {
+    
+    private static final Set<String> INDEXED_TABLES = Set.of("despesas", "despesas_totais_diarios");
+    
+    private static final ObjectMapper json = new ObjectMapper();
+    
+    @Autowired
+    private ExpenseRepository expenseRepository;
+    
+    @Autowired
+    private ExpenseDailyTotalRepository totalRepository;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Autowired
+    private DataSource dataSource;
+    
+    @Autowired
+    private StatementCapture capture;
+    
+    private static final String SEEDED_USERS = "SELECT id FROM usuarios WHERE email LIKE 'plano%@verificacao.local'";
+    
+    private Long userId;
+    
+    @BeforeAll
+    void seed() {
+        removeSeed();
+        jdbcTemplate.update("INSERT INTO usuarios (email, senha, nome, criado_em) " +
+                "SELECT 'plano' || g || '@verificacao.local', '-', 'Verificação ' || g, now() " +
+                "FROM generate_series(1, 500) g");
+        jdbcTemplate.update("INSERT INTO categorias (nome, usuario_id) " +
+                "SELECT 'Categoria ' || c, u.id FROM usuarios u CROSS JOIN generate_series(1, 4) c " +
+                "WHERE u.email LIKE 'plano%@verificacao.local'");
+        jdbcTemplate.update("INSERT INTO despesas (data, descricao, categoria_id, valor, recorrente, usuario_id, criado_em) " +
+                "SELECT DATE '2020-01-01' + (random() * 2500)::int, 'Despesa ' || g, c.id, " +
+                "round((random() * 500)::numeric, 2), false, c.usuario_id, now() " +
+                "FROM categorias c JOIN usuarios u ON u.id = c.usuario_id CROSS JOIN generate_series(1, 100) g " +
+                "WHERE u.email LIKE 'plano%@verificacao.local'");
+        jdbcTemplate.update("INSERT INTO despesas_totais_diarios (usuario_id, ano, mes, dia, categoria_id, total, quantidade) " +
+                "SELECT usuario_id, EXTRACT(YEAR FROM data), EXTRACT(MONTH FROM data), EXTRACT(DAY FROM data), " +
+                "categoria_id, SUM(valor), COUNT(*) FROM despesas d " +
+                "WHERE usuario_id IN (" + SEEDED_USERS + ") " +
+                "GROUP BY usuario_id, data, categoria_id " +
+                "ON CONFLICT (usuario_id, ano, mes, dia, categoria_id) DO NOTHING");
+        for (String table : List.of("usuarios", "categorias", "despesas", "despesas_totais_diarios")) {
+            jdbcTemplate.execute("ANALYZE " + table);
+        }
+        userId = jdbcTemplate.queryForObject("SELECT id FROM usuarios WHERE email = 'plano250@verificacao.local'", Long.class);
+    }
+    
+    @AfterAll
+    void removeSeed() {
+        jdbcTemplate.update("DELETE FROM despesas_totais_diarios WHERE usuario_id IN (" + SEEDED_USERS + ")");
+        jdbcTemplate.update("DELETE FROM despesas WHERE usuario_id IN (" + SEEDED_USERS + ")");
+        jdbcTemplate.update("DELETE FROM categorias WHERE usuario_id IN (" + SEEDED_USERS + ")");
+        jdbcTemplate.update("DELETE FROM usuarios WHERE id IN (" + SEEDED_USERS + ")");
+    }
+    
+    // GET /expenses sem busca: só os filtros informados viram predicados.
+    @Test
+    void findPage() {
+        ExpenseFilterDTO filter = new ExpenseFilterDTO();
+        assertIndexed(() -> expenseRepository.findPage(userId, filter, false));
+        
+        filter.setStartDate(LocalDate.of(2023, 1, 1));
+        assertIndexed(() -> expenseRepository.findPage(userId, filter, false));
+        
+        filter.setEndDate(LocalDate.of(2023, 6, 30));
+        filter.setPaymentMethod("PIX");
+        filter.setSortBy("amount");
+        filter.setPage(3);
+        assertIndexed(() -> expenseRepository.findPage(userId, filter, false));
+    }
+    
+    @Test
+    void findByKeyset() {
+        ExpenseFilterDTO filter = new ExpenseFilterDTO();
+        assertIndexed(() -> expenseRepository.findByKeyset(userId, filter,
+                new ExpenseKeyset("date", false, false, null, null), 21));
+        assertIndexed(() -> expenseRepository.findByKeyset(userId, filter,
+                new ExpenseKeyset("date", false, false, LocalDate.of(2023, 6, 1), 500_000L), 21));
+        assertIndexed(() -> expenseRepository.countWithFilters(userId, filter));
+    }
+    
+    @Test
+    void search() {
+        ExpenseFilterDTO filter = new ExpenseFilterDTO();
+        filter.setQ("despesa 15");
+        assertIndexed(() -> expenseRepository.findPage(userId, filter, true));
+        assertIndexed(() -> expenseRepository.findPage(userId, filter, false));
+    }
+    
+    @Test
+    void aggregate() {
+        ExpenseFilterDTO filter = new ExpenseFilterDTO();
+        filter.setStartDate(LocalDate.of(2024, 1, 1));
+        filter.setEndDate(LocalDate.of(2024, 12, 31));
+        assertIndexed(() -> expenseRepository.aggregate(userId, filter, null));
+        assertIndexed(() -> expenseRepository.aggregate(userId, filter, ExpenseGroupBy.CATEGORY));
+        assertIndexed(() -> expenseRepository.aggregate(userId, filter, ExpenseGroupBy.MONTH));
+    }
+    
+    @Test
+    void dashboard() {
+        assertIndexed(() -> totalRepository.getDashboard(userId, 2024, 2, 1, 2024, 3, 31,
+                LocalDate.of(2024, 3, 1), LocalDate.of(2024, 3, 31)));
+        assertIndexed(() -> totalRepository.sumMonthByCategory(userId, 2024, 3));
+    }
+    
+    private void assertIndexed(Runnable call) {
+        List<StatementCapture.Statement> statements = capture.during(call);
+        List<StatementCapture.Statement> reads = statements.stream()
+                .filter(statement -> statement.isRead() && INDEXED_TABLES.stream().anyMatch(statement.sql()::contains))
+                .toList();
+        assertThat(reads).as("comandos de leitura capturados").isNotEmpty();
+        for (StatementCapture.Statement statement : reads) {
+            JsonNode plan = explain(statement);
+            for (JsonNode node : plan.findParents("Node Type")) {
+                if ("Seq Scan".equals(node.path("Node Type").asText())
+                        && INDEXED_TABLES.contains(node.path("Relation Name").asText())) {
+                    fail("Varredura sequencial em " + node.path("Relation Name").asText() + ":\n" + statement.sql()
+                            + "\n" + plan.toPrettyString());
+                }
+            }
+        }
+    }
+    
+    private JsonNode explain(StatementCapture.Statement statement) {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement explain = connection.prepareStatement("EXPLAIN (FORMAT JSON) " + statement.sql())) {
+            for (ParameterSetOperation operation : statement.parameters()) {
+                operation.getMethod().invoke(explain, operation.getArgs());
+            }
+            try (ResultSet rs = explain.executeQuery()) {
+                rs.next();
+                return json.readTree(rs.getString(1));
+            }
+        } catch (Exception e) {
+            throw new IllegalStateException("EXPLAIN falhou para: " + statement.sql(), e);
+        }
+    }
+    
+    @TestConfiguration
+    static class CaptureConfig {
+        
+        @Bean
+        StatementCapture statementCapture() {
+            return new StatementCapture();
+        }
+        
+        @Bean
+        static BeanPostProcessor capturingDataSource(ObjectProvider<StatementCapture> capture) {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    if (bean instanceof DataSource dataSource) {
+                        return ProxyDataSourceBuilder.create(dataSource).listener(capture.getObject()).build();
+                    }
+                    return bean;
+                }
+            };
+        }
+    }
+    
+    // Guarda os comandos executados enquanto during() roda, com os parâmetros de cada um.
+    static class StatementCapture implements QueryExecutionListener {
+        
+        record Statement(String sql, List<ParameterSetOperation> parameters) {
+            
+            boolean isRead() {
+                String start = sql.stripLeading().toLowerCase(Locale.ROOT);
+                return start.startsWith("select") || start.startsWith("with");
+            }
+        }
+        
+        private List<Statement> statements;
+        
+        synchronized List<Statement> during(Runnable call) {
+            statements = new ArrayList<>();
+            try {
+                call.run();
+                return statements;
+            } finally {
+                statements = null;
+            }
+        }
+        
+        @Override
+        public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        }
+        
+        @Override
+        public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+            if (statements == null) {
+                return;
+            }
+            for (QueryInfo query : queryInfoList) {
+                if (query.getParametersList().isEmpty()) {
+                    statements.add(new Statement(query.getQuery(), List.of()));
+                }
+                query.getParametersList().forEach(parameters -> statements.add(new Statement(query.getQuery(), parameters)));
+            }
+        }
+    }
+}
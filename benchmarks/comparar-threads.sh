@@ -0,0 +1,40 @@
+#!/usr/bin/env bash
+# Compara o backend com threads de plataforma e com threads virtuais sob a mesma carga.
+# Requer o PostgreSQL do docker-compose no ar e os jars gerados:
+#   (cd backend && mvn install -DskipTests) && (cd benchmarks && mvn package)
+# Uso: benchmarks/comparar-threads.sh [usuários] [segundos] [segundos de aquecimento]
+set -euo pipefail
+
+cd "$(dirname "$0")"
+USERS=${1:-200}
+DURATION=${2:-30}
+WARMUP=${3:-10}
+APP=../backend/target/saldo-real-backend-1.0.0-exec.jar
+URL=http://localhost:8080/api
+
+run_mode() {
+    local label=$1; shift
+    java -jar "$APP" --spring.jpa.show-sql=false --logging.level.com.saldoreal=INFO \
+        --recurring.enabled=false "$@" > "target/app-$label.log" 2>&1 &
+    local pid=$!
+    trap "kill $pid 2>/dev/null" EXIT
+    for _ in $(seq 1 90); do
+        curl -sf "$URL/actuator/health" > /dev/null && break
+        kill -0 $pid 2>/dev/null || { echo "Backend não subiu, veja target/app-$label.log"; exit 1; }
+        sleep 1
+    done
+    echo "== $label"
+    java -cp target/benchmarks.jar com.saldoreal.benchmarks.load.LoadTest \
+        --url "$URL" --users "$USERS" --duration "$DURATION" --warmup "$WARMUP" --label "$label" --out "target/carga-$label.json"
+    kill $pid && wait $pid 2>/dev/null || true
+    trap - EXIT
+}
+
+run_mode plataforma
+
+JAVA_MAJOR=$(java -XshowSettings:properties -version 2>&1 | sed -n 's/.*java.specification.version = //p')
+if [ "$JAVA_MAJOR" -lt 21 ]; then
+    echo "Java $JAVA_MAJOR não tem threads virtuais; modo virtual não medido (requer Java 21+)."
+    exit 0
+fi
+run_mode virtual --spring.profiles.active=virtual
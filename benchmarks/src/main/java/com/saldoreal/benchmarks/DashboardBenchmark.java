@@ -0,0 +1,82 @@
+package com.saldoreal.benchmarks;
+
+import com.saldoreal.application.dto.DashboardDTO;
+import com.saldoreal.application.service.DashboardService;
+import com.saldoreal.domain.repository.DashboardRow;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DashboardBenchmark {
+    
+    // Dias do período (mês ou intervalo livre) e categorias com gasto.
+    @Param({"31", "365"})
+    private int days;
+    
+    @Param({"12"})
+    private int categories;
+    
+    private LocalDate start;
+    private LocalDate end;
+    private List<DashboardRow> rows;
+    
+    @Setup
+    public void setup() {
+        start = LocalDate.of(2025, 1, 1);
+        end = start.plusDays(days - 1);
+        
+        // Mesma forma e ordem da consulta: totais, categorias por valor e dias em ordem.
+        rows = new ArrayList<>();
+        for (int i = 0; i < categories; i++) {
+            rows.add(new Row("C", "Categoria " + i, null, BigDecimal.valueOf(5000 - i * 100L, 2), null));
+        }
+        for (int i = 0; i < days; i++) {
+            rows.add(new Row("D", null, start.plusDays(i), BigDecimal.valueOf(10_000 + i * 37L, 2), null));
+        }
+        rows.add(new Row("T", null, null, new BigDecimal("98765.43"), new BigDecimal("91234.56")));
+    }
+    
+    @Benchmark
+    public DashboardDTO assemble() {
+        return DashboardService.assemble(start, end, rows);
+    }
+    
+    private record Row(String tipo, String rotulo, LocalDate data, BigDecimal total, BigDecimal totalAnterior)
+            implements DashboardRow {
+        
+        @Override
+        public String getTipo() {
+            return tipo;
+        }
+        
+        @Override
+        public String getRotulo() {
+            return rotulo;
+        }
+        
+        @Override
+        public LocalDate getData() {
+            return data;
+        }
+        
+        @Override
+        public BigDecimal getTotal() {
+            return total;
+        }
+        
+        @Override
+        public BigDecimal getTotalAnterior() {
+            return totalAnterior;
+        }
+    }
+}
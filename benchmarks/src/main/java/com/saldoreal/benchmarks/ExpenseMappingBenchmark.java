@@ -0,0 +1,85 @@
+package com.saldoreal.benchmarks;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.saldoreal.application.dto.CursorPageDTO;
+import com.saldoreal.application.dto.ExpenseDTO;
+import com.saldoreal.application.service.ExpenseService;
+import com.saldoreal.domain.model.Category;
+import com.saldoreal.domain.model.Expense;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ExpenseMappingBenchmark {
+    
+    @Param({"20", "100"})
+    private int pageSize;
+    
+    private List<Expense> expenses;
+    private List<ExpenseDTO> dtos;
+    private ObjectMapper objectMapper;
+    
+    @Setup
+    public void setup() {
+        Category category = new Category();
+        category.setId(7L);
+        category.setName("Mercado");
+        
+        expenses = new ArrayList<>();
+        for (int i = 0; i < pageSize; i++) {
+            Expense expense = new Expense();
+            expense.setId(1000L + i);
+            expense.setDate(LocalDate.of(2025, 1, 1).plusDays(i));
+            expense.setDescription("Compra " + i);
+            expense.setCategory(category);
+            expense.setAmount(new BigDecimal("123.45").add(BigDecimal.valueOf(i)));
+            expense.setPaymentMethod("PIX");
+            expense.setRecurring(false);
+            expense.setObservations(i % 3 == 0 ? "Observação " + i : null);
+            expenses.add(expense);
+        }
+        dtos = toDTOs();
+        
+        // Mesma configuração de datas do ObjectMapper da aplicação (ISO, não timestamp).
+        objectMapper = new ObjectMapper()
+                .findAndRegisterModules()
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    }
+    
+    @Benchmark
+    public List<ExpenseDTO> toDTOs() {
+        List<ExpenseDTO> result = new ArrayList<>(expenses.size());
+        for (Expense expense : expenses) {
+            result.add(ExpenseService.toDTO(expense));
+        }
+        return result;
+    }
+    
+    @Benchmark
+    public byte[] serializePage() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(new PageImpl<>(dtos, PageRequest.of(0, pageSize), 10_000));
+    }
+    
+    @Benchmark
+    public byte[] serializeCursorPage() throws JsonProcessingException {
+        CursorPageDTO<ExpenseDTO> page = new CursorPageDTO<>();
+        page.setContent(dtos);
+        page.setSize(pageSize);
+        page.setNextCursor("ZGF0ZXwxfG58MTA5OXwyMDI1LTA0LTEw");
+        return objectMapper.writeValueAsBytes(page);
+    }
+}
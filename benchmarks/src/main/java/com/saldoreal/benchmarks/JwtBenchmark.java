@@ -0,0 +1,58 @@
+package com.saldoreal.benchmarks;
+
+import com.saldoreal.infrastructure.security.UserPrincipal;
+import com.saldoreal.security.JwtTokenProvider;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtBenchmark {
+    
+    private static final String SECRET = "chave-de-benchmark-com-pelo-menos-256-bits-para-hmac-sha";
+    private static final long EXPIRATION = 86_400_000;
+    
+    private JwtTokenProvider cached;
+    private JwtTokenProvider uncached;
+    private String token;
+    private String[] tokens;
+    private int next;
+    
+    @Setup
+    public void setup() {
+        cached = new JwtTokenProvider(SECRET, EXPIRATION, 10000, new SimpleMeterRegistry());
+        token = cached.generateToken("usuario@saldoreal.com", 42L);
+        cached.authenticate(token);
+        
+        // Cache de tamanho zero e tokens em rodízio: o despejo do Caffeine é assíncrono,
+        // então repetir o mesmo token ainda acertaria o cache às vezes.
+        uncached = new JwtTokenProvider(SECRET, EXPIRATION, 0, new SimpleMeterRegistry());
+        tokens = new String[4096];
+        for (int i = 0; i < tokens.length; i++) {
+            tokens[i] = uncached.generateToken("usuario" + i + "@saldoreal.com", (long) i);
+        }
+    }
+    
+    @Benchmark
+    public String generate() {
+        return cached.generateToken("usuario@saldoreal.com", 42L);
+    }
+    
+    @Benchmark
+    public Optional<UserPrincipal> verifyCached() {
+        return cached.authenticate(token);
+    }
+    
+    @Benchmark
+    public Optional<UserPrincipal> verifyUncached() {
+        next = (next + 1) & (tokens.length - 1);
+        return uncached.authenticate(tokens[next]);
+    }
+}
@@ -0,0 +1,43 @@
+package com.saldoreal.benchmarks;
+
+import com.saldoreal.application.service.FinancialProjectionService;
+import com.saldoreal.application.service.ProjectionEngine;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProjectionBenchmark {
+    
+    @Param({"12", "360", "1200"})
+    private int period;
+    
+    private final BigDecimal initialValue = new BigDecimal("10000.00");
+    private final BigDecimal monthlyContribution = new BigDecimal("1500.00");
+    private final BigDecimal interestRate = new BigDecimal("10.5");
+    
+    private FinancialProjectionService service;
+    
+    @Setup
+    public void setup() {
+        // Só o cálculo é exercitado; os repositórios não são usados.
+        service = new FinancialProjectionService(null, null, new ProjectionEngine(10000));
+    }
+    
+    // Caminho do /projections/calculate: a partir da segunda chamada, acerto no cache.
+    @Benchmark
+    public BigDecimal calculateFutureValue() {
+        return service.calculateFutureValue(initialValue, monthlyContribution, interestRate, period);
+    }
+    
+    @Benchmark
+    public BigDecimal closedForm() {
+        return ProjectionEngine.computeFutureValue(initialValue, monthlyContribution, interestRate, period);
+    }
+}
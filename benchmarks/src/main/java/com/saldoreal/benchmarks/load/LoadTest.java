@@ -0,0 +1,270 @@
+package com.saldoreal.benchmarks.load;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Teste de carga de malha fechada contra o backend em execução: N usuários simultâneos, cada um
+// repete uma requisição assim que recebe a resposta anterior. Mede vazão, percentis de latência
+// e erros das listagens e do dashboard (com períodos aleatórios, para não servir só do cache).
+//
+// java -cp target/benchmarks.jar com.saldoreal.benchmarks.load.LoadTest \
+//      --url http://localhost:8080/api --users 200 --warmup 10 --duration 30 --out resultado.json
+public class LoadTest {
+    
+    private static final ObjectMapper json = new ObjectMapper();
+    
+    private final HttpClient client;
+    private final String baseUrl;
+    private final int users;
+    private final int seedExpenses;
+    private final List<String> scenarios;
+    private String authorization;
+    
+    LoadTest(String baseUrl, int users, int seedExpenses, List<String> scenarios) {
+        this.baseUrl = baseUrl;
+        this.users = users;
+        this.seedExpenses = seedExpenses;
+        this.scenarios = scenarios;
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(10))
+                .executor(Executors.newFixedThreadPool(8, daemon()))
+                .build();
+    }
+    
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parse(args);
+        LoadTest test = new LoadTest(
+                options.getOrDefault("url", "http://localhost:8080/api"),
+                Integer.parseInt(options.getOrDefault("users", "200")),
+                Integer.parseInt(options.getOrDefault("seed", "2000")),
+                Arrays.asList(options.getOrDefault("scenarios", "expenses,dashboard").split(",")));
+        int warmup = Integer.parseInt(options.getOrDefault("warmup", "10"));
+        int duration = Integer.parseInt(options.getOrDefault("duration", "30"));
+        
+        test.seed();
+        System.out.printf("Aquecimento: %d s com %d usuários%n", warmup, test.users);
+        test.run(warmup);
+        System.out.printf("Medição: %d s com %d usuários%n", duration, test.users);
+        Map<String, Result> results = test.run(duration);
+        
+        ObjectNode report = json.createObjectNode();
+        report.put("label", options.getOrDefault("label", ""));
+        report.put("users", test.users);
+        report.put("durationSeconds", duration);
+        ObjectNode scenarios = report.putObject("scenarios");
+        results.forEach((name, result) -> {
+            System.out.println(result.describe(name, duration));
+            scenarios.set(name, result.toJson(duration));
+        });
+        String out = options.get("out");
+        if (out != null) {
+            json.writerWithDefaultPrettyPrinter().writeValue(new File(out), report);
+        }
+    }
+    
+    // Cria um usuário, uma categoria e despesas espalhadas pelos últimos 365 dias.
+    void seed() throws Exception {
+        String email = "carga-" + System.currentTimeMillis() + "@saldoreal.local";
+        JsonNode auth = post("/auth/register",
+                "{\"name\":\"Carga\",\"email\":\"" + email + "\",\"password\":\"carga123\"}");
+        authorization = "Bearer " + auth.get("token").asText();
+        long categoryId = post("/categories", "{\"name\":\"Carga\",\"monthlyLimit\":100000}").get("id").asLong();
+        
+        System.out.printf("Criando %d despesas de %s%n", seedExpenses, email);
+        LocalDate today = LocalDate.now();
+        ExecutorService pool = Executors.newFixedThreadPool(16, daemon());
+        List<Future<JsonNode>> pending = new ArrayList<>();
+        for (int i = 0; i < seedExpenses; i++) {
+            LocalDate date = today.minusDays(i % 365);
+            String body = String.format("{\"date\":\"%s\",\"description\":\"Despesa de carga %d\"," +
+                    "\"categoryId\":%d,\"amount\":%d.%02d,\"paymentMethod\":\"PIX\"}",
+                    date, i, categoryId, 1 + i % 300, i % 100);
+            pending.add(pool.submit(() -> post("/expenses", body)));
+        }
+        for (Future<JsonNode> future : pending) {
+            future.get();
+        }
+        pool.shutdown();
+    }
+    
+    Map<String, Result> run(int seconds) throws InterruptedException {
+        Map<String, Result> results = new LinkedHashMap<>();
+        for (String scenario : scenarios) {
+            results.put(scenario, new Result());
+        }
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+        AtomicInteger next = new AtomicInteger();
+        
+        // Threads do próprio cliente: cada uma é um usuário esperando a resposta, como um navegador.
+        List<Thread> workers = new ArrayList<>();
+        for (int i = 0; i < users; i++) {
+            Thread worker = new Thread(() -> {
+                Map<String, Recorder> local = new HashMap<>();
+                while (System.nanoTime() < deadline) {
+                    String scenario = scenarios.get(Math.floorMod(next.getAndIncrement(), scenarios.size()));
+                    local.computeIfAbsent(scenario, s -> new Recorder()).record(send(request(scenario)));
+                }
+                local.forEach((scenario, recorder) -> results.get(scenario).merge(recorder));
+            }, "carga-" + i);
+            worker.setDaemon(true);
+            workers.add(worker);
+            worker.start();
+        }
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        return results;
+    }
+    
+    // "reactive-expenses" e "reactive-dashboard" fazem as mesmas leituras em /reactive (reactive.enabled).
+    private HttpRequest request(String scenario) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        String prefix = scenario.startsWith("reactive-") ? "/reactive" : "";
+        String path = prefix + switch (scenario.substring(prefix.isEmpty() ? 0 : "reactive-".length())) {
+            case "expenses" -> "/expenses?page=" + random.nextInt(Math.max(1, seedExpenses / 20)) + "&size=20";
+            case "dashboard" -> {
+                LocalDate end = LocalDate.now().minusDays(random.nextInt(300));
+                yield "/dashboard?startDate=" + end.minusDays(7 + random.nextInt(58)) + "&endDate=" + end;
+            }
+            default -> throw new IllegalArgumentException("Cenário desconhecido: " + scenario);
+        };
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .header("Authorization", authorization)
+                .timeout(Duration.ofSeconds(30))
+                .GET()
+                .build();
+    }
+    
+    // Devolve a latência em microssegundos, negativa quando a requisição falhou.
+    private long send(HttpRequest request) {
+        long start = System.nanoTime();
+        boolean ok;
+        try {
+            HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+            ok = response.statusCode() == 200;
+        } catch (IOException e) {
+            ok = false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            ok = false;
+        }
+        long micros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start);
+        return ok ? micros : -1 - micros;
+    }
+    
+    private JsonNode post(String path, String body) throws IOException, InterruptedException {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body));
+        if (authorization != null) {
+            request.header("Authorization", authorization);
+        }
+        HttpResponse<String> response = client.send(request.build(), HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("POST " + path + " respondeu " + response.statusCode() + ": " + response.body());
+        }
+        return json.readTree(response.body());
+    }
+    
+    private static Map<String, String> parse(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            if (!args[i].startsWith("--")) {
+                throw new IllegalArgumentException("Opção inválida: " + args[i]);
+            }
+            options.put(args[i].substring(2), args[i + 1]);
+        }
+        return options;
+    }
+    
+    private static ThreadFactory daemon() {
+        return runnable -> {
+            Thread thread = new Thread(runnable);
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+    
+    // Latências de um usuário, sem sincronização: só a própria thread escreve.
+    static class Recorder {
+        
+        long[] latencies = new long[1024];
+        int size;
+        int errors;
+        
+        void record(long micros) {
+            if (micros < 0) {
+                errors++;
+                micros = -1 - micros;
+            }
+            if (size == latencies.length) {
+                latencies = Arrays.copyOf(latencies, size * 2);
+            }
+            latencies[size++] = micros;
+        }
+    }
+    
+    static class Result {
+        
+        private long[] latencies = new long[0];
+        private int errors;
+        
+        synchronized void merge(Recorder recorder) {
+            int offset = latencies.length;
+            latencies = Arrays.copyOf(latencies, offset + recorder.size);
+            System.arraycopy(recorder.latencies, 0, latencies, offset, recorder.size);
+            errors += recorder.errors;
+        }
+        
+        double percentileMillis(double percentile) {
+            if (latencies.length == 0) {
+                return 0;
+            }
+            long[] sorted = latencies.clone();
+            Arrays.sort(sorted);
+            int index = (int) Math.ceil(percentile / 100 * sorted.length) - 1;
+            return sorted[Math.max(0, index)] / 1000.0;
+        }
+        
+        String describe(String name, int seconds) {
+            return String.format("%-18s %8.1f req/s  p50 %7.1f ms  p95 %7.1f ms  p99 %7.1f ms  erros %d de %d",
+                    name, (double) latencies.length / seconds, percentileMillis(50), percentileMillis(95),
+                    percentileMillis(99), errors, latencies.length);
+        }
+        
+        ObjectNode toJson(int seconds) {
+            ObjectNode node = json.createObjectNode();
+            node.put("requests", latencies.length);
+            node.put("errors", errors);
+            node.put("throughput", (double) latencies.length / seconds);
+            node.put("p50Ms", percentileMillis(50));
+            node.put("p95Ms", percentileMillis(95));
+            node.put("p99Ms", percentileMillis(99));
+            return node;
+        }
+    }
+}
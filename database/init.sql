@@ -10,8 +10,8 @@ CREATE DATABASE saldo_real
     TABLESPACE = pg_default
     CONNECTION LIMIT = -1;
 
--- As tabelas serão criadas automaticamente pelo Hibernate na primeira execução
--- com base nas entidades JPA definidas no código
+-- As tabelas são criadas pelas migrações do Flyway (backend/src/main/resources/db/migration)
+-- na primeira execução do backend
 
 -- Tabelas que serão criadas:
 -- - usuarios (id, email, senha, nome, criado_em)
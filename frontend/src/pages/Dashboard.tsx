@@ -1,10 +1,51 @@
 import { useEffect, useState } from 'react'
 import { dashboardService, DashboardData } from '../services/api'
+import { ExpenseEvent, MonthTotals, reloadLater, subscribeToEvents } from '../services/events'
+import { format } from 'date-fns'
 import { PieChart, Pie, Cell, BarChart, Bar, XAxis, YAxis, CartesianGrid, Tooltip, Legend, ResponsiveContainer } from 'recharts'
 import { TrendingUp, TrendingDown, DollarSign } from 'lucide-react'
 
 const COLORS = ['#0088FE', '#00C49F', '#FFBB28', '#FF8042', '#8884d8', '#82ca9d']
 
+// Mesma conta do backend: variação em % com duas casas, zero sem mês anterior.
+function percentChange(current: number, previous: number) {
+  return previous > 0 ? Math.round((current - previous) / previous * 10000) / 100 : 0
+}
+
+// O evento traz o mês inteiro, que é o período do dashboard: total, variação e categorias
+// são trocados pelos do evento, na ordem do backend (maior gasto primeiro).
+function applyTotals(data: DashboardData, totals: MonthTotals): DashboardData {
+  if (!data.periodoInicio.startsWith(totals.month)) {
+    return data
+  }
+  return {
+    ...data,
+    totalMesAtual: totals.total,
+    percentualVariacao: percentChange(totals.total, data.totalMesAnterior),
+    gastosPorCategoria: totals.categories
+      .filter((category) => category.consumed > 0)
+      .sort((a, b) => b.consumed - a.consumed)
+      .map((category) => ({ categoria: category.categoryName, total: category.consumed })),
+  }
+}
+
+// Inclusão soma no dia da despesa e exclusão desconta; a série vai até hoje.
+function applyToSeries(data: DashboardData, { action, expense }: ExpenseEvent): DashboardData {
+  const seriesEnd = [data.periodoFim, format(new Date(), 'yyyy-MM-dd')].sort()[0]
+  if (expense.date < data.periodoInicio || expense.date > seriesEnd) {
+    return data
+  }
+  const amount = action === 'DELETED' ? -expense.amount : expense.amount
+  const days = data.gastosPorPeriodo.filter((day) => day.data !== expense.date)
+  const day = data.gastosPorPeriodo.find((item) => item.data === expense.date)
+  const total = Math.round(((day?.total ?? 0) + amount) * 100) / 100
+  if (total > 0) {
+    days.push({ data: expense.date, total })
+    days.sort((a, b) => a.data.localeCompare(b.data))
+  }
+  return { ...data, gastosPorPeriodo: days }
+}
+
 export default function Dashboard() {
   const [data, setData] = useState<DashboardData | null>(null)
   const [loading, setLoading] = useState(true)
@@ -12,11 +53,33 @@ export default function Dashboard() {
 
   useEffect(() => {
     loadDashboard()
+    // Totais e despesas do stream entram direto no estado. Uma alteração não traz o valor antigo,
+    // que a série diária precisaria descontar: ela, como as mudanças em lote, recarrega sem o
+    // indicador de carregamento, uma vez por rajada.
+    const reload = reloadLater(() => loadDashboard(false))
+    const unsubscribe = subscribeToEvents((name, data) => {
+      if (name === 'totals') {
+        setData((current) => current && applyTotals(current, data as MonthTotals))
+      } else if (name === 'expense') {
+        const event = data as ExpenseEvent
+        if (event.action === 'UPDATED') {
+          reload()
+        } else {
+          setData((current) => current && applyToSeries(current, event))
+        }
+      } else {
+        reload()
+      }
+    })
+    return () => {
+      unsubscribe()
+      reload.cancel()
+    }
   }, [])
 
-  const loadDashboard = async () => {
+  const loadDashboard = async (showLoading = true) => {
     try {
-      setLoading(true)
+      if (showLoading) setLoading(true)
       const dashboardData = await dashboardService.getDashboard()
       setData(dashboardData)
     } catch (err: any) {
@@ -1,14 +1,69 @@
-import { useEffect, useState } from 'react'
+import { useEffect, useRef, useState } from 'react'
 import { Link } from 'react-router-dom'
 import { expenseService, Expense, categoryService, Category } from '../services/api'
+import { ExpenseEvent, reloadLater, subscribeToEvents } from '../services/events'
 import { Plus, Edit, Trash2, Search } from 'lucide-react'
 import { format } from 'date-fns'
 
+const PAGE_SIZE = 100
+
+type ExpenseFilters = {
+  startDate: string
+  endDate: string
+  categoryId: string
+  minAmount: string
+  maxAmount: string
+  paymentMethod: string
+}
+
+// Os mesmos critérios que o backend aplica em /expenses.
+function matchesFilters(expense: Expense, filters: ExpenseFilters) {
+  return (!filters.startDate || expense.date >= filters.startDate)
+    && (!filters.endDate || expense.date <= filters.endDate)
+    && (!filters.categoryId || expense.categoryId === Number(filters.categoryId))
+    && (!filters.minAmount || expense.amount >= Number(filters.minAmount))
+    && (!filters.maxAmount || expense.amount <= Number(filters.maxAmount))
+    && (!filters.paymentMethod || expense.paymentMethod === filters.paymentMethod)
+}
+
+// Ordem da listagem: data decrescente e, no mesmo dia, id decrescente.
+function comesBefore(a: Expense, b: Expense) {
+  return a.date !== b.date ? a.date > b.date : (a.id ?? 0) > (b.id ?? 0)
+}
+
+// Aplica a despesa na lista e no total sem ir ao backend. Sem a página cheia, a lista tem todas
+// as despesas do filtro; com ela cheia, uma despesa alterada fora da página pode ter saído do
+// filtro com um valor que a tela não conhece, e aí só uma recarga acerta o total.
+function applyExpense({ action, expense }: ExpenseEvent, list: Expense[], active: ExpenseFilters) {
+  const truncated = list.length >= PAGE_SIZE
+  const previous = list.find((item) => item.id === expense.id)
+  if (action === 'UPDATED' && !previous && truncated) {
+    return null
+  }
+
+  let next = list.filter((item) => item.id !== expense.id)
+  let delta = 0
+  if (previous) {
+    delta -= previous.amount
+  } else if (action === 'DELETED' && truncated && matchesFilters(expense, active)) {
+    delta -= expense.amount
+  }
+  if (action !== 'DELETED' && matchesFilters(expense, active)) {
+    delta += expense.amount
+    const index = next.findIndex((item) => comesBefore(expense, item))
+    if (index >= 0 || !truncated) {
+      next.splice(index >= 0 ? index : next.length, 0, expense)
+      next = next.slice(0, PAGE_SIZE)
+    }
+  }
+  return { next, delta }
+}
+
 export default function Expenses() {
   const [expenses, setExpenses] = useState<Expense[]>([])
   const [categories, setCategories] = useState<Category[]>([])
   const [loading, setLoading] = useState(true)
-  const [filters, setFilters] = useState({
+  const [filters, setFilters] = useState<ExpenseFilters>({
     startDate: '',
     endDate: '',
     categoryId: '',
@@ -36,12 +91,12 @@ export default function Expenses() {
     }
   }
 
-  const loadExpenses = async () => {
+  const loadExpenses = async (showLoading = true) => {
     try {
-      setLoading(true)
+      if (showLoading) setLoading(true)
       const params: any = {
         page: 0,
-        size: 100,
+        size: PAGE_SIZE,
         sortBy: 'date',
         sortDir: 'desc',
       }
@@ -65,12 +120,60 @@ export default function Expenses() {
     }
   }
 
+  // O stream fica aberto enquanto a tela existe; os eventos usam sempre a lista e os filtros atuais.
+  const current = useRef({ expenses, filters, loadExpenses })
+  current.current = { expenses, filters, loadExpenses }
+  // Exclusões feitas nesta tela já aplicadas; o evento delas, quando chegar, é ignorado.
+  const deletedHere = useRef(new Set<number>())
+
+  const apply = (event: ExpenseEvent) => {
+    const applied = applyExpense(event, current.current.expenses, current.current.filters)
+    if (!applied) {
+      return false
+    }
+    current.current.expenses = applied.next
+    setExpenses(applied.next)
+    setTotal((value) => Math.round((value + applied.delta) * 100) / 100)
+    return true
+  }
+
+  useEffect(() => {
+    const reload = reloadLater(() => {
+      loadCategories()
+      current.current.loadExpenses(false)
+    })
+
+    const unsubscribe = subscribeToEvents((name, data) => {
+      if (name === 'expense') {
+        const event = data as ExpenseEvent
+        if (event.action === 'DELETED' && deletedHere.current.delete(event.expense.id!)) {
+          return
+        }
+        if (!apply(event)) {
+          reload()
+        }
+      } else if (name !== 'totals') {
+        reload()
+      }
+    })
+    return () => {
+      unsubscribe()
+      reload.cancel()
+    }
+  }, [])
+
   const handleDelete = async (id: number) => {
     if (!confirm('Tem certeza que deseja excluir esta despesa?')) return
 
+    const expense = current.current.expenses.find((item) => item.id === id)
     try {
       await expenseService.delete(id)
-      loadExpenses()
+      if (expense) {
+        deletedHere.current.add(id)
+        apply({ action: 'DELETED', expense })
+      } else {
+        loadExpenses()
+      }
     } catch (err) {
       alert('Erro ao excluir despesa')
     }
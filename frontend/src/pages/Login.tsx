@@ -19,7 +19,11 @@ export default function Login() {
       await login(email, password)
       navigate('/dashboard')
     } catch (err: any) {
-      setError(err.response?.data?.message || 'Erro ao fazer login')
+      if (err.response?.status === 429) {
+        setError('Muitos acessos no momento. Tente novamente em instantes.')
+      } else {
+        setError(err.response?.data?.message || 'Erro ao fazer login')
+      }
     } finally {
       setLoading(false)
     }
@@ -20,7 +20,11 @@ export default function Register() {
       await register(name, email, password)
       navigate('/dashboard')
     } catch (err: any) {
-      setError(err.response?.data?.message || 'Erro ao criar conta')
+      if (err.response?.status === 429) {
+        setError('Muitos acessos no momento. Tente novamente em instantes.')
+      } else {
+        setError(err.response?.data?.message || 'Erro ao criar conta')
+      }
     } finally {
       setLoading(false)
     }
@@ -61,6 +61,8 @@ export interface FinancialProjection {
 }
 
 export interface DashboardData {
+  periodoInicio: string
+  periodoFim: string
   totalMesAtual: number
   totalMesAnterior: number
   percentualVariacao: number
@@ -134,6 +136,13 @@ export const dashboardService = {
   },
 }
 
+export const eventService = {
+  getToken: async (): Promise<string> => {
+    const response = await api.post<{ token: string }>('/events/token')
+    return response.data.token
+  },
+}
+
 export const projectionService = {
   getAll: async () => {
     const response = await api.get('/projections')
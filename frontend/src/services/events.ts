@@ -0,0 +1,92 @@
+import { eventService, Expense } from './api'
+
+// Stream /api/events: o backend avisa das mudanças já confirmadas (agrupadas em rajadas).
+// As telas aplicam `expense` e `totals` no próprio estado; `expenses`, `categories` e `reset`
+// não dizem o que mudou e pedem uma recarga, agrupada por reloadLater.
+export type LiveEventName = 'expense' | 'expenses' | 'categories' | 'totals' | 'reset'
+
+export interface ExpenseEvent {
+  action: 'CREATED' | 'UPDATED' | 'DELETED'
+  expense: Expense
+}
+
+export interface MonthTotals {
+  month: string
+  total: number
+  categories: Array<{ categoryId: number; categoryName: string; consumed: number }>
+}
+
+const EVENT_NAMES: LiveEventName[] = ['expense', 'expenses', 'categories', 'totals', 'reset']
+
+const RECONNECT_DELAY_MS = 3000
+const RELOAD_DELAY_MS = 500
+
+// Uma rajada de pedidos vira uma única chamada, RELOAD_DELAY_MS depois do último.
+export function reloadLater(reload: () => void): { (): void; cancel: () => void } {
+  let timer: ReturnType<typeof setTimeout> | undefined
+  const schedule = () => {
+    clearTimeout(timer)
+    timer = setTimeout(reload, RELOAD_DELAY_MS)
+  }
+  schedule.cancel = () => clearTimeout(timer)
+  return schedule
+}
+
+export function subscribeToEvents(handler: (name: LiveEventName, data: any) => void): () => void {
+  if (!localStorage.getItem('token') || typeof EventSource === 'undefined') {
+    return () => {}
+  }
+
+  let source: EventSource | null = null
+  let retry: ReturnType<typeof setTimeout> | undefined
+  let closed = false
+  let opened = false
+
+  const reconnect = () => {
+    if (!closed) {
+      retry = setTimeout(connect, RECONNECT_DELAY_MS)
+    }
+  }
+
+  // O EventSource não envia cabeçalhos: a URL leva um token de eventos, que vale um minuto e só
+  // abre este stream. A reconexão automática repetiria a URL com o token vencido, então cada
+  // queda fecha a conexão e pede um token novo.
+  const connect = async () => {
+    let token: string
+    try {
+      token = await eventService.getToken()
+    } catch {
+      reconnect()
+      return
+    }
+    if (closed) {
+      return
+    }
+    source = new EventSource(`/api/events?access_token=${encodeURIComponent(token)}`)
+    EVENT_NAMES.forEach((name) => {
+      source?.addEventListener(name, (event) => {
+        const data = (event as MessageEvent).data
+        handler(name, data ? JSON.parse(data) : null)
+      })
+    })
+    // Eventos da queda se perderam: depois de uma reconexão, a tela recarrega como num reset.
+    source.onopen = () => {
+      if (opened) {
+        handler('reset', null)
+      }
+      opened = true
+    }
+    source.onerror = () => {
+      source?.close()
+      source = null
+      reconnect()
+    }
+  }
+
+  connect()
+  return () => {
+    closed = true
+    clearTimeout(retry)
+    source?.close()
+  }
+}